@@ -1,5 +1,14 @@
 import functions.*;
 import functions.basic.*;
+import functions.meta.CachedFunction;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Main {
 
@@ -22,7 +31,377 @@ public class Main {
         System.out.println();
     }
 
-    public static void main(String[] args) {
+    private static final double EPS = 1e-9;
+
+    // Прежний алгоритм getFunctionValue (линейный перебор отрезков), используется как эталон при проверке бинарного поиска
+    private static double linearScanValue(TabulatedFunction f, double x) {
+        int n = f.getPointsCount();
+        if (x < f.getLeftDomainBorder() || x > f.getRightDomainBorder()) {
+            return Double.NaN;
+        }
+        if (Math.abs(x - f.getPointX(0)) < EPS)
+            return f.getPointY(0);
+        if (Math.abs(x - f.getPointX(n - 1)) < EPS)
+            return f.getPointY(n - 1);
+
+        for (int i = 0; i < n - 1; i++) {
+            double x1 = f.getPointX(i);
+            double x2 = f.getPointX(i + 1);
+            if (Math.abs(x - x2) < EPS) return f.getPointY(i + 1);
+            if (x > x1 && x < x2) {
+                double y1 = f.getPointY(i);
+                double y2 = f.getPointY(i + 1);
+                return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+            }
+        }
+        return Double.NaN;
+    }
+
+    // Сравнивает getFunctionValue с эталоном в узлах, около узлов (в пределах EPS и чуть дальше), в серединах отрезков, за границами и в случайных точках
+    private static int countInterpolationMismatches(TabulatedFunction f, Random random) {
+        int mismatches = 0;
+        int n = f.getPointsCount();
+        double left = f.getLeftDomainBorder();
+        double right = f.getRightDomainBorder();
+
+        double[] probes = new double[n * 6 + 1004];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            double x = f.getPointX(i);
+            probes[k++] = x;
+            probes[k++] = x - EPS / 2;
+            probes[k++] = x + EPS / 2;
+            probes[k++] = x - 2 * EPS;
+            probes[k++] = x + 2 * EPS;
+            probes[k++] = i < n - 1 ? (x + f.getPointX(i + 1)) / 2 : x;
+        }
+        probes[k++] = left - 1;
+        probes[k++] = right + 1;
+        probes[k++] = Double.NaN;
+        probes[k++] = right;
+        for (int i = 0; i < 1000; i++) {
+            probes[k++] = left + (right - left) * random.nextDouble();
+        }
+
+        for (double x : probes) {
+            if (Double.compare(f.getFunctionValue(x), linearScanValue(f, x)) != 0) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    // Выполняет одни и те же случайные добавления, удаления и изменения точек над f и над ArrayTabulatedFunction с теми же точками;
+    // считает операции, после которых различаются брошенные исключения, точки, значения, hashCode или equals
+    private static int countStructureMismatches(TabulatedFunction f, Random random, int operations) {
+        TabulatedFunction reference = new ArrayTabulatedFunction(toPoints(f));
+        int mismatches = 0;
+        for (int op = 0; op < operations; op++) {
+            int n = reference.getPointsCount();
+            // Индекс иногда выходит за границы на единицу, X берётся из сетки с шагом 0.05, так что совпадения X часты
+            int index = random.nextInt(n + 2) - 1;
+            double x = random.nextInt(2001) * 0.05 - 50;
+            double y = random.nextDouble() * 20 - 10;
+            int kind = random.nextInt(5);
+            if (kind >= 3 && index > 0 && index < n - 1 && random.nextBoolean()) {
+                // Середина между соседями: сдвиг X, который допустим
+                x = (reference.getPointX(index - 1) + reference.getPointX(index + 1)) / 2;
+            }
+            Class<?> expected = applyOperation(reference, kind, index, x, y);
+            Class<?> actual = applyOperation(f, kind, index, x, y);
+            if (expected != actual || !sameState(f, reference, random)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    // Операция kind над f; возвращает класс брошенного исключения или null
+    private static Class<?> applyOperation(TabulatedFunction f, int kind, int index, double x, double y) {
+        try {
+            switch (kind) {
+                case 0: f.addPoint(new FunctionPoint(x, y)); break;
+                case 1: f.deletePoint(index); break;
+                case 2: f.setPointY(index, y); break;
+                case 3: f.setPointX(index, x); break;
+                default: f.setPoint(index, new FunctionPoint(x, y)); break;
+            }
+            return null;
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private static boolean sameState(TabulatedFunction f, TabulatedFunction reference, Random random) {
+        int n = reference.getPointsCount();
+        if (f.getPointsCount() != n) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (Double.compare(f.getPointX(i), reference.getPointX(i)) != 0 || Double.compare(f.getPointY(i), reference.getPointY(i)) != 0) {
+                return false;
+            }
+        }
+        double left = reference.getLeftDomainBorder();
+        double right = reference.getRightDomainBorder();
+        for (int i = 0; i < 4; i++) {
+            double x = left - 1 + (right - left + 2) * random.nextDouble();
+            if (Double.compare(f.getFunctionValue(x), reference.getFunctionValue(x)) != 0) {
+                return false;
+            }
+        }
+        return f.hashCode() == reference.hashCode() && f.equals(reference) && reference.equals(f);
+    }
+
+    // x * x с подсчётом вычислений: по нему видно, нашлось ли значение в кэше
+    private static final class CountingSquare implements Function {
+        long calls;
+
+        public double getLeftDomainBorder() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        public double getRightDomainBorder() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        public double getFunctionValue(double x) {
+            calls++;
+            return x * x;
+        }
+    }
+
+    private static CachedFunction singleSegmentCache(Function f, CachedFunction.Eviction eviction, int capacity) {
+        return new CachedFunction(f, new CachedFunction.Config().capacity(capacity).segments(1).eviction(eviction));
+    }
+
+    // Аргументы из candidates, которых нет в кэше после обращений accesses; каждый проверяется на отдельном кэше,
+    // чтобы промах при проверке не вытеснил другие значения
+    private static String evictedArguments(CachedFunction.Eviction eviction, int capacity, double[] accesses, double[] candidates) {
+        StringBuilder evicted = new StringBuilder("[");
+        for (double candidate : candidates) {
+            CountingSquare f = new CountingSquare();
+            CachedFunction cache = singleSegmentCache(f, eviction, capacity);
+            for (double x : accesses) {
+                cache.getFunctionValue(x);
+            }
+            long calls = f.calls;
+            cache.getFunctionValue(candidate);
+            if (f.calls != calls) {
+                evicted.append(evicted.length() > 1 ? ", " : "").append(candidate);
+            }
+        }
+        return evicted.append(']').toString();
+    }
+
+    // Случайные обращения к кэшу (один сегмент) и к модели его правила вытеснения: LinkedHashMap в порядке обращений для LRU,
+    // массив записей с отметками и стрелкой для CLOCK. Считает обращения, где различаются попадание или значение,
+    // и различия итоговых счётчиков попаданий, промахов и вытеснений. Частые вытеснения проверяют удаление из таблицы
+    private static int countCacheModelMismatches(CachedFunction.Eviction eviction, int capacity, int keys, int accesses, Random random) {
+        CountingSquare f = new CountingSquare();
+        CachedFunction cache = singleSegmentCache(f, eviction, capacity);
+        LinkedHashMap<Double, Boolean> lru = new LinkedHashMap<>(16, 0.75f, true);
+        Map<Double, Integer> clockEntries = new HashMap<>();
+        double[] clockKeys = new double[capacity];
+        boolean[] referenced = new boolean[capacity];
+        int hand = 0;
+        long hits = 0;
+        long evictions = 0;
+        int mismatches = 0;
+        for (int i = 0; i < accesses; i++) {
+            double x = random.nextInt(keys) * 0.5 - keys / 4.0;
+            boolean expectedHit;
+            if (eviction == CachedFunction.Eviction.LRU) {
+                expectedHit = lru.get(x) != null;
+                if (!expectedHit) {
+                    if (lru.size() == capacity) {
+                        Iterator<Double> eldest = lru.keySet().iterator();
+                        eldest.next();
+                        eldest.remove();
+                        evictions++;
+                    }
+                    lru.put(x, Boolean.TRUE);
+                }
+            } else {
+                Integer entry = clockEntries.get(x);
+                expectedHit = entry != null;
+                if (expectedHit) {
+                    referenced[entry] = true;
+                } else {
+                    int e;
+                    if (clockEntries.size() < capacity) {
+                        e = clockEntries.size();
+                    } else {
+                        while (referenced[hand]) {
+                            referenced[hand] = false;
+                            hand = (hand + 1) % capacity;
+                        }
+                        e = hand;
+                        hand = (hand + 1) % capacity;
+                        clockEntries.remove(clockKeys[e]);
+                        evictions++;
+                    }
+                    clockKeys[e] = x;
+                    referenced[e] = false;
+                    clockEntries.put(x, e);
+                }
+            }
+            if (expectedHit) {
+                hits++;
+            }
+            long calls = f.calls;
+            double value = cache.getFunctionValue(x);
+            if ((f.calls == calls) != expectedHit || value != x * x) {
+                mismatches++;
+            }
+        }
+        if (cache.getHits() != hits) mismatches++;
+        if (cache.getMisses() != accesses - hits) mismatches++;
+        if (cache.getEvictions() != evictions) mismatches++;
+        return mismatches;
+    }
+
+    // Сравнивает FastMath с Math в пределах ulps шагов от m * Math.PI и (m + 1/2) * Math.PI при |m| <= maxM, где sin или cos
+    // близки к нулю; возвращает количество аргументов, где sin, cos и tan отличаются больше чем на 1, 1 и 2 ulp результата Math
+    private static int[] countFastTrigMismatches(int maxM, int ulps) {
+        int[] mismatches = new int[3];
+        for (int m = -maxM; m <= maxM; m++) {
+            for (double base : new double[]{m * Math.PI, (m + 0.5) * Math.PI}) {
+                double x = base;
+                for (int i = 0; i < ulps; i++) {
+                    x = Math.nextDown(x);
+                }
+                for (int i = -ulps; i <= ulps; i++, x = Math.nextUp(x)) {
+                    if (Math.abs(FastMath.sin(x) - Math.sin(x)) > Math.ulp(Math.sin(x))) mismatches[0]++;
+                    if (Math.abs(FastMath.cos(x) - Math.cos(x)) > Math.ulp(Math.cos(x))) mismatches[1]++;
+                    if (Math.abs(FastMath.tan(x) - Math.tan(x)) > 2 * Math.ulp(Math.tan(x))) mismatches[2]++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    // Пакетные вычисления getFunctionValues(values, values) у ConcurrentTabulatedFunction, пока другой поток записывает в неё
+    // те же Y: каждая запись берёт блокировку и сбрасывает оптимистическое чтение, но функция не меняется.
+    // Возвращает количество вызовов, после которых values отличается от значений эталонной ArrayTabulatedFunction
+    private static int countAliasedBatchMismatches(int calls, int size, Random random) throws InterruptedException {
+        double[] ys = new double[101];
+        for (int i = 0; i < ys.length; i++) {
+            ys[i] = i / 2.0 + 1;
+        }
+        ConcurrentTabulatedFunction f = new ConcurrentTabulatedFunction(0, 100, ys);
+        TabulatedFunction reference = new ArrayTabulatedFunction(0, 100, ys);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !stop.get(); i = (i + 1) % ys.length) {
+                f.setPointY(i, ys[i]);
+            }
+        });
+        writer.start();
+        int mismatches = 0;
+        try {
+            double[] values = new double[size];
+            for (int call = 0; call < calls; call++) {
+                for (int i = 0; i < size; i++) {
+                    values[i] = 100 * random.nextDouble();
+                }
+                double[] expected = values.clone();
+                reference.getFunctionValues(expected, expected);
+                f.getFunctionValues(values, values);
+                for (int i = 0; i < size; i++) {
+                    if (values[i] != expected[i]) {
+                        mismatches++;
+                        break;
+                    }
+                }
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        return mismatches;
+    }
+
+    // ArrayTabulatedFunction (0..4; 1, -2, 0.5, 3, 7), сериализованная исходной версией класса с полем FunctionPoint[] points
+    private static final String BASELINE_ARRAY_STREAM =
+            "aced00057372002066756e6374696f6e732e4172726179546162756c6174656446756e6374696f6e00000000000000010200" +
+            "0249000b706f696e7473436f756e745b0006706f696e747374001a5b4c66756e6374696f6e732f46756e6374696f6e506f69" +
+            "6e743b7870000000057572001a5b4c66756e6374696f6e732e46756e6374696f6e506f696e743b623fa41d5f41dda7020000" +
+            "7870000000057372001766756e6374696f6e732e46756e6374696f6e506f696e740000000000000001020002440001784400" +
+            "0179787000000000000000003ff00000000000007371007e00053ff0000000000000c0000000000000007371007e00054000" +
+            "0000000000003fe00000000000007371007e0005400800000000000040080000000000007371007e00054010000000000000" +
+            "401c000000000000";
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Записывает значения парами через TabulatedTextWriter и проверяет каждое записанное число: Double.parseDouble
+    // возвращает то же значение, запись не длиннее Double.toString, TabulatedTextReader читает то же значение.
+    // Возвращает количества расхождений в этом порядке
+    private static int[] countTextCodecMismatches(double[] values) throws IOException {
+        StringWriter text = new StringWriter();
+        TabulatedTextWriter writer = new TabulatedTextWriter(text);
+        writer.writePointsCount(values.length / 2);
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            writer.writePoint(values[i], values[i + 1]);
+        }
+        writer.flush();
+
+        int[] mismatches = new int[3];
+        String[] tokens = text.toString().trim().split("\\s+");
+        for (int i = 0; i < values.length; i++) {
+            String token = tokens[i + 1];
+            if (Double.compare(Double.parseDouble(token), values[i]) != 0) {
+                mismatches[0]++;
+            }
+            if (token.length() > Double.toString(values[i]).length()) {
+                mismatches[1]++;
+            }
+        }
+        TabulatedTextReader reader = new TabulatedTextReader(new StringReader(text.toString()));
+        for (int i = 0; reader.next(); i += 2) {
+            if (Double.compare(reader.getX(), values[i]) != 0 || Double.compare(reader.getY(), values[i + 1]) != 0) {
+                mismatches[2]++;
+            }
+        }
+        return mismatches;
+    }
+
+    // Разбирает строки TabulatedTextReader и сравнивает с Double.parseDouble; возвращает количество расхождений
+    private static int countTextParseMismatches(String[] numbers) throws IOException {
+        StringBuilder text = new StringBuilder().append(numbers.length / 2).append('\n');
+        for (String number : numbers) {
+            text.append(number).append(' ');
+        }
+        int mismatches = 0;
+        TabulatedTextReader reader = new TabulatedTextReader(new StringReader(text.toString()));
+        for (int i = 0; reader.next(); i += 2) {
+            if (Double.compare(reader.getX(), Double.parseDouble(numbers[i])) != 0) mismatches++;
+            if (Double.compare(reader.getY(), Double.parseDouble(numbers[i + 1])) != 0) mismatches++;
+        }
+        return mismatches;
+    }
+
+    public static void main(String[] args) throws Exception {
 
         Function sin = new Sin();
         Function cos = new Cos();
@@ -130,5 +509,174 @@ public class Main {
         } catch (Exception e) {
             System.out.println("Ошибка: клон функции создать нельзя!");
         }
+
+        // Проверка бинарного поиска в getFunctionValue против прежнего линейного алгоритма
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА БИНАРНОГО ПОИСКА В getFunctionValue()");
+        System.out.println("=====================================================\n");
+
+        Random random = new Random(42);
+        FunctionPoint[] irregular = new FunctionPoint[1000];
+        double x = -50;
+        for (int i = 0; i < irregular.length; i++) {
+            x += 1e-6 + random.nextDouble();
+            irregular[i] = new FunctionPoint(x, Math.sin(x) * 10);
+        }
+
+        TabulatedFunction[] checked = {
+                new ArrayTabulatedFunction(irregular),
+                new LinkedListTabulatedFunction(irregular),
+                TabulatedFunctions.tabulate(sin, 0, Math.PI, 5),
+                new LinkedListTabulatedFunction(toPoints(TabulatedFunctions.tabulate(cos, 0, Math.PI, 37)))
+        };
+        for (TabulatedFunction f : checked) {
+            System.out.println(f.getClass().getSimpleName() + " (" + f.getPointsCount() + " точек): расхождений с эталоном = "
+                    + countInterpolationMismatches(f, random) + " (ожидается: 0)");
+        }
+
+        // Чтение данных, сериализованных исходной версией ArrayTabulatedFunction
+        System.out.println("\n=====================================================");
+        System.out.println("      СОВМЕСТИМОСТЬ СЕРИАЛИЗАЦИИ ArrayTabulatedFunction");
+        System.out.println("=====================================================\n");
+
+        TabulatedFunction baseline = (TabulatedFunction) deserialize(fromHex(BASELINE_ARRAY_STREAM));
+        TabulatedFunction expected = new ArrayTabulatedFunction(0, 4, new double[]{1, -2, 0.5, 3, 7});
+        System.out.println("Прочитано из исходного формата: " + baseline);
+        System.out.println("baseline.equals(expected) → " + baseline.equals(expected) + " (ожидается: true)");
+        System.out.println("hashCode совпадает → " + (baseline.hashCode() == expected.hashCode()) + " (ожидается: true)");
+        TabulatedFunction roundTrip = (TabulatedFunction) deserialize(serialize(baseline));
+        System.out.println("повторная сериализация: roundTrip.equals(baseline) → " + roundTrip.equals(baseline) + " (ожидается: true)");
+        System.out.println("значение в x = 2.5: " + roundTrip.getFunctionValue(2.5) + " (ожидается: 1.75)");
+    
+
+        // Текстовый формат: запись кратчайшим десятичным числом (Schubfach) и разбор (Клингер, Эйзель-Лемир)
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА ТЕКСТОВОГО ФОРМАТА ЧИСЕЛ");
+        System.out.println("=====================================================\n");
+
+        double[] special = {0.0, -0.0, 1.0, -1.0, 0.1, 0.3, 1e23, 9007199254740993.0, 123456789.0, 1e-3, 9.999999e6, 1e7,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Math.nextDown(Double.MIN_NORMAL), Double.MAX_VALUE,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Math.PI, Math.E};
+        double[] randomBits = new double[100_000];
+        for (int i = 0; i < randomBits.length; i++) {
+            randomBits[i] = Double.longBitsToDouble(random.nextLong());
+        }
+        double[] randomDecimals = new double[100_000];
+        for (int i = 0; i < randomDecimals.length; i++) {
+            randomDecimals[i] = Math.round(random.nextDouble() * 1e6) / Math.pow(10, random.nextInt(12));
+        }
+        String[] codecTitles = {"особые значения", "случайные биты", "короткие десятичные"};
+        double[][] codecValues = {special, randomBits, randomDecimals};
+        for (int k = 0; k < codecValues.length; k++) {
+            int[] mismatches = countTextCodecMismatches(codecValues[k]);
+            System.out.println("Запись (" + codecTitles[k] + ", чисел: " + codecValues[k].length + "): не совпадает с Double.parseDouble = "
+                    + mismatches[0] + ", длиннее Double.toString = " + mismatches[1] + ", не совпадает при чтении = " + mismatches[2]
+                    + " (ожидается: 0, 0, 0)");
+        }
+
+        String[] numbers = new String[100_000];
+        for (int i = 0; i < numbers.length; i++) {
+            if (i % 2 == 0) {
+                numbers[i] = Double.toString(Double.longBitsToDouble(random.nextLong()));
+            } else {
+                // До 25 значащих цифр и порядок от -345 до 315: быстрые пути, Эйзель-Лемир и запасной Double.parseDouble
+                StringBuilder number = new StringBuilder(random.nextBoolean() ? "-" : "");
+                int digits = 1 + random.nextInt(25);
+                for (int d = 0; d < digits; d++) {
+                    number.append((char) ('0' + random.nextInt(10)));
+                    if (d == 0 && digits > 1 && random.nextBoolean()) {
+                        number.append('.');
+                    }
+                }
+                numbers[i] = number.append('e').append(random.nextInt(661) - 345).toString();
+            }
+        }
+        System.out.println("Чтение (строк: " + numbers.length + "): не совпадает с Double.parseDouble = "
+                + countTextParseMismatches(numbers) + " (ожидается: 0)");
+
+        // Случайные добавления, удаления и изменения точек: структуры данных против ArrayTabulatedFunction
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА СТРУКТУР ДАННЫХ ПРОТИВ ArrayTabulatedFunction");
+        System.out.println("=====================================================\n");
+
+        TabulatedFunction[] structures = {
+                new TreeTabulatedFunction(-50, 50, 1001),
+                new UnrolledLinkedListTabulatedFunction(-50, 50, 1001),
+                new ConcurrentTabulatedFunction(-50, 50, 1001)
+        };
+        for (TabulatedFunction f : structures) {
+            System.out.println(f.getClass().getSimpleName() + " (10000 операций): расхождений с ArrayTabulatedFunction = "
+                    + countStructureMismatches(f, random, 10_000) + " (ожидается: 0)");
+        }
+
+        // Кэш значений: порядок вытеснения, счётчики и удаление из таблицы с открытой адресацией
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА КЭША ЗНАЧЕНИЙ CachedFunction");
+        System.out.println("=====================================================\n");
+
+        // Ёмкость 3: после обращений к 3, 2, 1 LRU вытесняет 3, а CLOCK снимает все отметки и вытесняет первую запись (1)
+        double[] accesses = {1, 2, 3, 3, 2, 1, 4};
+        double[] candidates = {1, 2, 3, 4};
+        String[] expectedEvicted = {"[3.0]", "[1.0]"};
+        for (CachedFunction.Eviction eviction : CachedFunction.Eviction.values()) {
+            System.out.println(eviction + ": после обращений 1, 2, 3, 3, 2, 1, 4 нет в кэше " + evictedArguments(eviction, 3, accesses, candidates)
+                    + " (ожидается: " + expectedEvicted[eviction.ordinal()] + ")");
+            CountingSquare square = new CountingSquare();
+            CachedFunction cache = singleSegmentCache(square, eviction, 3);
+            for (double a : accesses) {
+                cache.getFunctionValue(a);
+            }
+            System.out.println(eviction + ": попаданий " + cache.getHits() + ", промахов " + cache.getMisses() + ", вытеснений " + cache.getEvictions()
+                    + ", вычислений " + square.calls + ", размер " + cache.size() + " (ожидается: 3, 4, 1, 4, 3)");
+            System.out.println(eviction + " (ёмкость 64, 200 аргументов, 200000 обращений): расхождений с моделью = "
+                    + countCacheModelMismatches(eviction, 64, 200, 200_000, random) + " (ожидается: 0)");
+        }
+
+        // Без вытеснений каждый аргумент вычисляется один раз, в каком бы сегменте он ни лежал
+        CountingSquare square = new CountingSquare();
+        CachedFunction segmented = new CachedFunction(square, new CachedFunction.Config().capacity(4096).segments(16));
+        for (int i = 0; i < 100_000; i++) {
+            segmented.getFunctionValue(random.nextInt(2000) * 0.25);
+        }
+        System.out.println("16 сегментов, 2000 аргументов: вычислений " + square.calls + ", вытеснений " + segmented.getEvictions()
+                + " (ожидается: 2000, 0)");
+
+        // Приведение аргумента в FastMath около нулей sin и cos, где от x остаётся разность почти равных чисел
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА FastMath ОКОЛО НУЛЕЙ sin И cos");
+        System.out.println("=====================================================\n");
+
+        int[] trigMismatches = countFastTrigMismatches(2600, 4);
+        System.out.println("x = m * pi и (m + 1/2) * pi +- 4 ulp, |m| <= 2600: расхождений с Math больше 1 ulp у sin = " + trigMismatches[0]
+                + ", у cos = " + trigMismatches[1] + ", больше 2 ulp у tan = " + trigMismatches[2] + " (ожидается: 0, 0, 0)");
+        System.out.println("FastMath.sin(29 * pi) = " + FastMath.sin(29 * Math.PI) + ", Math.sin = " + Math.sin(29 * Math.PI));
+
+        // Пакетное вычисление с out == xs, когда оптимистическое чтение повторяется из-за одновременной записи Y
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА ConcurrentTabulatedFunction ПРИ ОДНОВРЕМЕННОЙ ЗАПИСИ");
+        System.out.println("=====================================================\n");
+
+        System.out.println("getFunctionValues(values, values), 200 вызовов по 20000 точек: вызовов с неверными значениями = "
+                + countAliasedBatchMismatches(200, 20_000, random) + " (ожидается: 0)");
+
+        // Упрощения в Functions не должны запоминать значения и области определения изменяемых функций
+        System.out.println("\n=====================================================");
+        System.out.println("      ПРОВЕРКА УПРОЩЕНИЙ Functions НАД ИЗМЕНЯЕМЫМИ ФУНКЦИЯМИ");
+        System.out.println("=====================================================\n");
+
+        TabulatedFunction table = new ArrayTabulatedFunction(0, 4, new double[]{0, 1, 4, 9, 16});
+        Function ofConstant = Functions.composition(table, new Constant(2));
+        Function powerZero = Functions.power(table, 0);
+        Function constantOf = Functions.composition(new Constant(5), table);
+        table.setPointY(2, 40);
+        table.addPoint(new FunctionPoint(6, 36));
+        System.out.println("composition(таблица, 2) после изменения таблицы: " + ofConstant.getFunctionValue(0) + " (ожидается: 40.0)");
+        System.out.println("power(таблица, 0): область [" + powerZero.getLeftDomainBorder() + "; " + powerZero.getRightDomainBorder()
+                + "] (ожидается: [0.0; 6.0])");
+        System.out.println("composition(5, таблица): область [" + constantOf.getLeftDomainBorder() + "; " + constantOf.getRightDomainBorder()
+                + "] (ожидается: [0.0; 6.0])");
+        System.out.println("composition(Sin, 2) свёрнута в Constant → " + (Functions.composition(new Sin(), new Constant(2)) instanceof Constant)
+                + " (ожидается: true)");
+        System.out.println("power(Exp, 0) свёрнута в Constant → " + (Functions.power(new Exp(), 0) instanceof Constant) + " (ожидается: true)");
     }
 }
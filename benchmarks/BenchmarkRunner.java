@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+//Запускает замеры: прогрев, затем измерение пропускной способности и объёма выделенной памяти в текущем потоке
+
+public final class BenchmarkRunner {
+
+    //Замеряемая операция, возвращает количество выполненных элементарных действий (вызовов, точек и т.п.)
+    public interface Operation {
+        long run() throws Exception;
+    }
+
+    //Сюда складываются результаты операций, чтобы JIT не выбросил вычисления как неиспользуемые
+    public static volatile double sink;
+
+    private final long warmupMillis;
+    private final long measureMillis;
+    private final String filter;
+    private final com.sun.management.ThreadMXBean threads;
+
+    public BenchmarkRunner(long warmupMillis, long measureMillis, String filter) {
+        this.warmupMillis = warmupMillis;
+        this.measureMillis = measureMillis;
+        this.filter = filter;
+
+        // Счётчик выделенной памяти потока есть только в реализации HotSpot
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    //Выводит заголовок таблицы результатов
+    public void printHeader() {
+        System.out.println(String.format(Locale.ROOT, "%-44s %10s %16s %12s %12s %12s",
+                "benchmark", "size", "ops/s", "ns/op", "B/op", "MB/s alloc"));
+    }
+
+    //Выполняет замер операции и печатает строку результата; пропускает замер, если имя не подходит под фильтр.
+    //Если операция завершилась ошибкой (например, переполнением стека при сериализации длинного списка), печатает ошибку и продолжает
+    public void run(String name, long size, Operation operation) {
+        if (filter != null && !name.contains(filter)) {
+            return;
+        }
+        try {
+            measure(name, size, operation);
+        } catch (Exception | StackOverflowError | OutOfMemoryError e) {
+            System.out.println(String.format(Locale.ROOT, "%-44s %10d   failed: %s", name, size, e));
+        }
+    }
+
+    //Печатает строку с величиной, которая не измеряется по времени (например, размер сериализованных данных)
+    public void report(String name, long size, String value) {
+        if (filter != null && !name.contains(filter)) {
+            return;
+        }
+        System.out.println(String.format(Locale.ROOT, "%-44s %10d   %s", name, size, value));
+    }
+
+    private void measure(String name, long size, Operation operation) throws Exception {
+
+        // Прогрев
+        long deadline = System.nanoTime() + warmupMillis * 1_000_000L;
+        while (System.nanoTime() < deadline) {
+            operation.run();
+        }
+
+        // Измерение
+        long ops = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        deadline = start + measureMillis * 1_000_000L;
+        long now;
+        do {
+            ops += operation.run();
+            now = System.nanoTime();
+        } while (now < deadline);
+        double allocated = allocatedBefore < 0 ? Double.NaN : allocatedBytes() - allocatedBefore;
+        double seconds = (now - start) / 1e9;
+
+        System.out.println(String.format(Locale.ROOT, "%-44s %10d %16.1f %12.2f %12.1f %12.1f",
+                name, size,
+                ops / seconds,
+                (now - start) / (double) ops,
+                allocated / ops,
+                allocated / seconds / (1024 * 1024)));
+    }
+
+    private long allocatedBytes() {
+        if (threads == null || !threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
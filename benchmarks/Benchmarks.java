@@ -0,0 +1,479 @@
+package benchmarks;
+
+import functions.*;
+import functions.basic.*;
+import functions.meta.CachedFunction;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+//Набор замеров производительности табулированных функций: табулирование, вычисление значений, добавление/удаление точек и ввод-вывод.
+//Запуск: java benchmarks.Benchmarks [--sizes=10,1000,100000,10000000] [--max-io-size=1000000] [--warmup=500] [--time=1000] [--filter=имя]
+
+public final class Benchmarks {
+
+    //Количество вычислений значения функции за одну операцию замера
+    private static final int QUERIES = 1024;
+
+    private Benchmarks() {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] sizes = {10, 1_000, 100_000, 10_000_000};
+        long maxIoSize = 1_000_000;
+        long warmup = 500;
+        long time = 1000;
+        String filter = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                String[] parts = arg.substring("--sizes=".length()).split(",");
+                sizes = new long[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    sizes[i] = Long.parseLong(parts[i].trim());
+                }
+            } else if (arg.startsWith("--max-io-size=")) {
+                maxIoSize = Long.parseLong(arg.substring("--max-io-size=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Long.parseLong(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--time=")) {
+                time = Long.parseLong(arg.substring("--time=".length()));
+            } else if (arg.startsWith("--filter=")) {
+                filter = arg.substring("--filter=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, time, filter);
+        runner.printHeader();
+
+        for (long size : sizes) {
+            int n = (int) size;
+            tabulation(runner, n);
+            evaluation(runner, n);
+            caching(runner, n);
+            approximation(runner, n);
+            fastMath(runner, n);
+            if (size <= maxIoSize) {
+                mutation(runner, n);
+                io(runner, n);
+            }
+        }
+    }
+
+    //Табулирование синуса и составной функции (последовательное и параллельное) на n точках
+    private static void tabulation(BenchmarkRunner runner, int n) throws Exception {
+        Function sin = new Sin();
+        runner.run("tabulate(Sin)", n, () -> {
+            TabulatedFunction f = TabulatedFunctions.tabulate(sin, 1, 11, n);
+            BenchmarkRunner.sink = f.getPointY(n - 1);
+            return n;
+        });
+
+        Function composite = Functions.composition(new Log(2), Functions.sum(new Exp(), Functions.power(new Sin(), 2)));
+        runner.run("tabulate(Log(Exp + Sin^2))", n, () -> {
+            TabulatedFunction f = TabulatedFunctions.tabulate(composite, 1, 11, n);
+            BenchmarkRunner.sink = f.getPointY(n - 1);
+            return n;
+        });
+        runner.run("tabulateParallel(Log(Exp + Sin^2))", n, () -> {
+            TabulatedFunction f = TabulatedFunctions.tabulateParallel(composite, 1, 11, n);
+            BenchmarkRunner.sink = f.getPointY(n - 1);
+            return n;
+        });
+        Function compiled = Functions.compile(composite);
+        runner.run("tabulate(compiled Log(Exp + Sin^2))", n, () -> {
+            TabulatedFunction f = TabulatedFunctions.tabulate(compiled, 1, 11, n);
+            BenchmarkRunner.sink = f.getPointY(n - 1);
+            return n;
+        });
+    }
+
+    //Вычисление значений в случайных точках на равномерной и неравномерной сетках
+    private static void evaluation(BenchmarkRunner runner, int n) throws Exception {
+        double[] queries = randomQueries(new Random(1), 1, 11, QUERIES);
+
+        TabulatedFunction uniformArray = TabulatedFunctions.tabulate(new Sin(), 1, 11, n);
+        evaluate(runner, "getFunctionValue(Array, uniform)", n, uniformArray, queries);
+        uniformArray = null;
+
+        TabulatedFunction irregularArray = new ArrayTabulatedFunction(irregularPoints(n));
+        evaluate(runner, "getFunctionValue(Array, irregular)", n, irregularArray, queries);
+        irregularArray = null;
+
+        TabulatedFunction uniformList = new LinkedListTabulatedFunction(1, 11, n);
+        evaluate(runner, "getFunctionValue(LinkedList, uniform)", n, uniformList, queries);
+        uniformList = null;
+
+        TabulatedFunction irregularList = new LinkedListTabulatedFunction(irregularPoints(n));
+        evaluate(runner, "getFunctionValue(LinkedList, irregular)", n, irregularList, queries);
+        irregularList = null;
+
+        irregularList = new UnrolledLinkedListTabulatedFunction(irregularPoints(n));
+        evaluate(runner, "getFunctionValue(UnrolledList, irregular)", n, irregularList, queries);
+        irregularList = null;
+
+        TabulatedFunction irregularTree = new TreeTabulatedFunction(irregularPoints(n));
+        evaluate(runner, "getFunctionValue(Tree, irregular)", n, irregularTree, queries);
+        irregularTree = null;
+
+        TabulatedFunction irregularConcurrent = new ConcurrentTabulatedFunction(irregularPoints(n));
+        evaluate(runner, "getFunctionValue(Concurrent, irregular)", n, irregularConcurrent, queries);
+    }
+
+    //Вычисление составной функции в повторяющихся точках: n различных аргументов, кэш на 4096 значений
+    private static void caching(BenchmarkRunner runner, int n) throws Exception {
+        Function composite = Functions.composition(new Log(2), Functions.sum(new Exp(), Functions.power(new Sin(), 2)));
+        double[] queries = new double[QUERIES];
+        Random random = new Random(4);
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = 1 + 10.0 * random.nextInt(n) / n;
+        }
+        evaluate(runner, "getFunctionValue(Log(Exp + Sin^2), n distinct x)", n, composite, queries);
+        evaluate(runner, "getFunctionValue(cached LRU, n distinct x)", n, Functions.cached(composite), queries);
+        evaluate(runner, "getFunctionValue(cached CLOCK, n distinct x)", n,
+                Functions.cached(composite, new CachedFunction.Config().eviction(CachedFunction.Eviction.CLOCK)), queries);
+    }
+
+    //Вычисление по таблице, построенной Functions.approximate с допустимой погрешностью 1 / n, и напрямую
+    private static void approximation(BenchmarkRunner runner, int n) throws Exception {
+        double[] queries = randomQueries(new Random(5), 1, 11, QUERIES);
+        Function composite = Functions.composition(new Log(2), Functions.sum(new Exp(), Functions.power(new Sin(), 2)));
+        evaluate(runner, "getFunctionValue(Sin)", n, new Sin(), queries);
+        evaluate(runner, "getFunctionValue(approximate Sin, error 1/n)", n, Functions.approximate(new Sin(), 1, 11, 1.0 / n), queries);
+        evaluate(runner, "getFunctionValue(Log(Exp + Sin^2))", n, composite, queries);
+        evaluate(runner, "getFunctionValue(approximate Log(Exp + Sin^2), error 1/n)", n,
+                Functions.approximate(composite, 1, 11, 1.0 / n), queries);
+    }
+
+    //Элементарные функции в режимах MathMode.EXACT и MathMode.FAST, совместное вычисление sin и cos
+    private static void fastMath(BenchmarkRunner runner, int n) throws Exception {
+        double[] queries = randomQueries(new Random(6), 1, 11, QUERIES);
+        for (MathMode mode : MathMode.values()) {
+            evaluate(runner, "getFunctionValue(Sin, " + mode + ")", n, new Sin(mode), queries);
+            evaluate(runner, "getFunctionValue(Cos, " + mode + ")", n, new Cos(mode), queries);
+            evaluate(runner, "getFunctionValue(Tan, " + mode + ")", n, new Tan(mode), queries);
+            evaluate(runner, "getFunctionValue(Exp, " + mode + ")", n, new Exp(mode), queries);
+            evaluate(runner, "getFunctionValue(Log, " + mode + ")", n, new Log(2, mode), queries);
+            Function composite = Functions.composition(new Log(2, mode),
+                    Functions.sum(new Exp(mode), Functions.power(new Sin(mode), 2)));
+            evaluate(runner, "getFunctionValue(Log(Exp + Sin^2), " + mode + ")", n, composite, queries);
+            evaluate(runner, "getFunctionValue(compiled Log(Exp + Sin^2), " + mode + ")", n, Functions.compile(composite), queries);
+
+            SinCos sinCos = new SinCos(mode);
+            runner.run("sinCos(" + mode + ")", n, () -> {
+                double sum = 0;
+                for (double x : queries) {
+                    sinCos.evaluate(x);
+                    sum += sinCos.getSin() + sinCos.getCos();
+                }
+                BenchmarkRunner.sink = sum;
+                return queries.length;
+            });
+        }
+    }
+
+    private static void evaluate(BenchmarkRunner runner, String name, int n, Function f, double[] queries) throws Exception {
+        runner.run(name, n, () -> {
+            double sum = 0;
+            for (double x : queries) {
+                sum += f.getFunctionValue(x);
+            }
+            BenchmarkRunner.sink = sum;
+            return queries.length;
+        });
+    }
+
+    //Добавление точки в случайное место и удаление случайной точки
+    private static void mutation(BenchmarkRunner runner, int n) throws Exception {
+        churn(runner, "addPoint/deletePoint(Array)", n, new ArrayTabulatedFunction(1, 11, n));
+        churn(runner, "addPoint/deletePoint(LinkedList)", n, new LinkedListTabulatedFunction(1, 11, n));
+        LinkedListTabulatedFunction recycling = new LinkedListTabulatedFunction(1, 11, n);
+        recycling.setNodeRecycling(true);
+        churn(runner, "addPoint/deletePoint(LinkedList, recycling)", n, recycling);
+        churn(runner, "addPoint/deletePoint(UnrolledList)", n, new UnrolledLinkedListTabulatedFunction(1, 11, n));
+        churn(runner, "addPoint/deletePoint(Tree)", n, new TreeTabulatedFunction(1, 11, n));
+
+        // Добавление n / 10 случайных точек по одной и одним слиянием (в замер входит копирование исходной функции)
+        double[] xs = new double[Math.max(1, n / 10)];
+        double[] ys = new double[xs.length];
+        Random random = new Random(3);
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = 1 + 10 * random.nextDouble();
+            ys[i] = random.nextDouble();
+        }
+        bulk(runner, "addPoint x n/10(Array)", n, new ArrayTabulatedFunction(1, 11, n), xs, ys, false);
+        bulk(runner, "addPoints(Array, n/10)", n, new ArrayTabulatedFunction(1, 11, n), xs, ys, true);
+        bulk(runner, "addPoint x n/10(LinkedList)", n, new LinkedListTabulatedFunction(1, 11, n), xs, ys, false);
+        bulk(runner, "addPoints(LinkedList, n/10)", n, new LinkedListTabulatedFunction(1, 11, n), xs, ys, true);
+
+        // Копии и снимки: массивы копируются только при первом изменении копии
+        ArrayTabulatedFunction array = new ArrayTabulatedFunction(1, 11, n);
+        runner.run("clone(Array)", n, () -> {
+            BenchmarkRunner.sink = ((TabulatedFunction) array.clone()).getPointsCount();
+            return 1;
+        });
+        runner.run("clone + setPointY(Array)", n, () -> {
+            TabulatedFunction copy = (TabulatedFunction) array.clone();
+            copy.setPointY(0, 1);
+            BenchmarkRunner.sink = copy.getPointsCount();
+            return 1;
+        });
+        runner.run("freeze + hashCode x2(Array)", n, () -> {
+            TabulatedFunction frozen = array.freeze();
+            BenchmarkRunner.sink = frozen.hashCode() ^ frozen.hashCode();
+            return 1;
+        });
+        LinkedListTabulatedFunction list = new LinkedListTabulatedFunction(1, 11, n);
+        runner.run("clone(LinkedList)", n, () -> {
+            BenchmarkRunner.sink = ((TabulatedFunction) list.clone()).getPointsCount();
+            return 1;
+        });
+        runner.run("freeze(LinkedList)", n, () -> {
+            BenchmarkRunner.sink = list.freeze().getPointsCount();
+            return 1;
+        });
+
+        // Хэш-код после изменения (ключ кэша) и сравнение функций разных реализаций
+        runner.run("setPointY + hashCode(Array)", n, () -> {
+            array.setPointY(0, array.getPointY(0) + 1);
+            BenchmarkRunner.sink = array.hashCode();
+            return 1;
+        });
+        runner.run("setPointY + hashCode(LinkedList)", n, () -> {
+            list.setPointY(0, list.getPointY(0) + 1);
+            BenchmarkRunner.sink = list.hashCode();
+            return 1;
+        });
+        TabulatedFunction equalList = new LinkedListTabulatedFunction(1, 11, n);
+        ArrayTabulatedFunction equalArray = new ArrayTabulatedFunction(1, 11, n);
+        runner.run("equals(Array, LinkedList)", n, () -> {
+            BenchmarkRunner.sink = equalArray.equals(equalList) ? 1 : 0;
+            return n;
+        });
+    }
+
+    private static void bulk(BenchmarkRunner runner, String name, int n, TabulatedFunction source,
+                             double[] xs, double[] ys, boolean merge) throws Exception {
+        runner.run(name, n, () -> {
+            TabulatedFunction f = (TabulatedFunction) source.clone();
+            if (merge) {
+                f.addPoints(xs, ys, MergePolicy.KEEP_EXISTING);
+            } else {
+                for (int i = 0; i < xs.length; i++) {
+                    try {
+                        f.addPoint(new FunctionPoint(xs[i], ys[i]));
+                    } catch (InappropriateFunctionPointException e) {
+                        // Совпадение X с существующей точкой: оставляем существующую
+                    }
+                }
+            }
+            BenchmarkRunner.sink = f.getPointsCount();
+            return xs.length;
+        });
+    }
+
+    private static void churn(BenchmarkRunner runner, String name, int n, TabulatedFunction f) throws Exception {
+        Random random = new Random(2);
+        FunctionPoint point = new FunctionPoint();
+        runner.run(name, n, () -> {
+            point.setX(1 + 10 * random.nextDouble());
+            try {
+                f.addPoint(point);
+                f.deletePoint(1 + random.nextInt(f.getPointsCount() - 2));
+            } catch (InappropriateFunctionPointException e) {
+                // Совпадение X с существующей точкой: просто пропускаем
+            }
+            return 2;
+        });
+    }
+
+    //Запись и чтение в двоичном, текстовом, отображаемом в память и сериализованном виде, потоковая передискретизация
+    private static void io(BenchmarkRunner runner, int n) throws Exception {
+        TabulatedFunction[] sources = {
+                TabulatedFunctions.tabulate(new Sin(), 1, 11, n),
+                new LinkedListTabulatedFunction(irregularPoints(n))
+        };
+        String[] kinds = {"Array", "LinkedList"};
+
+        for (int k = 0; k < sources.length; k++) {
+            TabulatedFunction f = sources[k];
+            String kind = kinds[k];
+
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            TabulatedFunctions.outputTabulatedFunction(f, binary);
+            byte[] binaryBytes = binary.toByteArray();
+            runner.run("outputTabulatedFunction(" + kind + ")", n, () -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(binaryBytes.length);
+                TabulatedFunctions.outputTabulatedFunction(f, out);
+                BenchmarkRunner.sink = out.size();
+                return n;
+            });
+            runner.run("inputTabulatedFunction(" + kind + ")", n, () -> {
+                TabulatedFunction read = TabulatedFunctions.inputTabulatedFunction(new ByteArrayInputStream(binaryBytes));
+                BenchmarkRunner.sink = read.getPointsCount();
+                return n;
+            });
+
+            // Потоковое чтение с передискретизацией: в памяти только текущая порция и текущий отрезок
+            runner.run("resample(binary stream, " + kind + ")", n, () -> {
+                PointSource resampled = PointStreams.resample(
+                        new TabulatedBinaryReader(new ByteArrayInputStream(binaryBytes)), 1, 10.0 / n);
+                double sum = 0;
+                long count = 0;
+                while (resampled.next()) {
+                    sum += resampled.getY();
+                    count++;
+                }
+                BenchmarkRunner.sink = sum;
+                return count;
+            });
+
+            StringWriter text = new StringWriter();
+            TabulatedFunctions.writeTabulatedFunction(f, text);
+            String textData = text.toString();
+            runner.run("writeTabulatedFunction(" + kind + ")", n, () -> {
+                StringWriter out = new StringWriter(textData.length());
+                TabulatedFunctions.writeTabulatedFunction(f, out);
+                BenchmarkRunner.sink = out.getBuffer().length();
+                return n;
+            });
+            runner.run("readTabulatedFunction(" + kind + ")", n, () -> {
+                TabulatedFunction read = TabulatedFunctions.readTabulatedFunction(new StringReader(textData));
+                BenchmarkRunner.sink = read.getPointsCount();
+                return n;
+            });
+
+            Path mapped = Files.createTempFile("benchmark", ".tabf");
+            try {
+                runner.run("writeMappedTabulatedFunction(" + kind + ")", n, () -> {
+                    TabulatedFunctions.writeMappedTabulatedFunction(f, mapped);
+                    return n;
+                });
+                // Файл отображается один раз: отображения освобождаются только сборщиком мусора
+                TabulatedFunctions.writeMappedTabulatedFunction(f, mapped);
+                TabulatedFunction mappedFunction = TabulatedFunctions.mapTabulatedFunction(mapped);
+                evaluate(runner, "getFunctionValue(Mapped, " + kind + ")", n, mappedFunction,
+                        randomQueries(new Random(1), 1, 11, QUERIES));
+            } finally {
+                Files.deleteIfExists(mapped);
+            }
+
+            serialization(runner, n, kind, f, false);
+            serialization(runner, n, kind, f, true);
+        }
+    }
+
+    //Сериализация функции или, если legacy, объекта той же формы, что сериализовалась по умолчанию до компактного формата
+    private static void serialization(BenchmarkRunner runner, int n, String kind, TabulatedFunction f, boolean legacy) throws Exception {
+        String suffix = (legacy ? "legacy " : "") + kind + ")";
+        Object object = legacy ? legacyShape(f) : f;
+
+        // Сериализованные данные сохраняет замер serialize; если он завершился ошибкой, deserialize тоже сообщит об ошибке
+        byte[][] serialized = new byte[1][];
+        runner.run("serialize(" + suffix, n, () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(object);
+            }
+            serialized[0] = out.toByteArray();
+            return n;
+        });
+        if (serialized[0] != null) {
+            runner.report("serialized bytes(" + suffix, n, String.format(Locale.ROOT, "%d bytes, %.1f B/point",
+                    serialized[0].length, serialized[0].length / (double) n));
+        }
+        runner.run("deserialize(" + suffix, n, () -> {
+            if (serialized[0] == null) {
+                throw new IllegalStateException("no serialized data, serialize failed");
+            }
+            try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(serialized[0]))) {
+                BenchmarkRunner.sink = objects.readObject().hashCode();
+            }
+            return n;
+        });
+    }
+
+    //Объекты той же формы, в которой табулированные функции сериализовались по умолчанию:
+    //массив объектов FunctionPoint и граф узлов списка с объектом FunctionPoint в каждом узле
+    private static final class LegacyArrayShape implements Serializable {
+        private static final long serialVersionUID = 1L;
+        FunctionPoint[] points;
+        int pointsCount;
+    }
+
+    private static final class LegacyNodeShape implements Serializable {
+        private static final long serialVersionUID = 1L;
+        FunctionPoint point;
+        LegacyNodeShape next;
+        LegacyNodeShape prev;
+    }
+
+    private static final class LegacyListShape implements Serializable {
+        private static final long serialVersionUID = 1L;
+        LegacyNodeShape head;
+        int pointsCount;
+    }
+
+    private static Serializable legacyShape(TabulatedFunction f) {
+        int n = f.getPointsCount();
+        if (f instanceof ArrayTabulatedFunction) {
+            LegacyArrayShape shape = new LegacyArrayShape();
+            shape.points = new FunctionPoint[n];
+            for (int i = 0; i < n; i++) {
+                shape.points[i] = f.getPoint(i);
+            }
+            shape.pointsCount = n;
+            return shape;
+        }
+        LegacyListShape shape = new LegacyListShape();
+        shape.head = new LegacyNodeShape();
+        shape.head.next = shape.head;
+        shape.head.prev = shape.head;
+        for (int i = 0; i < n; i++) {
+            LegacyNodeShape node = new LegacyNodeShape();
+            node.point = f.getPoint(i);
+            node.prev = shape.head.prev;
+            node.next = shape.head;
+            shape.head.prev.next = node;
+            shape.head.prev = node;
+        }
+        shape.pointsCount = n;
+        return shape;
+    }
+
+    //Случайные точки запроса в [left, right]
+    private static double[] randomQueries(Random random, double left, double right, int count) {
+        double[] queries = new double[count];
+        for (int i = 0; i < count; i++) {
+            queries[i] = left + (right - left) * random.nextDouble();
+        }
+        return queries;
+    }
+
+    //Точки экспоненты с неравномерным шагом на отрезке [1, 11]
+    private static FunctionPoint[] irregularPoints(int n) {
+        Random random = new Random(3);
+        double[] steps = new double[n - 1];
+        double total = 0;
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = 0.5 + random.nextDouble();
+            total += steps[i];
+        }
+
+        FunctionPoint[] points = new FunctionPoint[n];
+        double x = 1;
+        for (int i = 0; i < n; i++) {
+            points[i] = new FunctionPoint(x, Math.exp(x));
+            if (i < steps.length) {
+                x += steps[i] * 10 / total;
+            }
+        }
+        return points;
+    }
+}
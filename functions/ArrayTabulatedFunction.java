@@ -1,14 +1,39 @@
 package functions;
-import java.io.Serializable;
+import java.io.*;
+import java.util.Arrays;
 
 //Класс описывает табулированную функцию
 public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
-    private FunctionPoint[] points;
-    private int pointsCount;
+    // Координаты точек хранятся в двух примитивных массивах (X и Y отдельно), объекты FunctionPoint создаются только на границе API.
+    // Поля не сериализуются по умолчанию: writeObject записывает только количество точек и их координаты
+    private transient double[] xs;
+    private transient double[] ys;
+    private transient int pointsCount;
+
+    // Признак равномерной сетки по X: пока он установлен, отрезок для x вычисляется за O(1) без поиска
+    private transient boolean uniform;
+    // Шаг равномерной сетки (имеет смысл только при uniform == true)
+    private transient double gridStep;
+    // Массивы xs и ys общие с копией (clone) или замороженным снимком (freeze):
+    // перед первым изменением функция заводит себе собственные массивы (copy-on-write).
+    // clone() и freeze() устанавливают признак и у исходной функции, поэтому поле volatile: копии, снятые в других потоках,
+    // видны потоку, который затем изменяет функцию
+    private transient volatile boolean sharedArrays;
+    // XOR хэш-кодов всех точек: поддерживается при каждом изменении, поэтому hashCode() вычисляется за O(1)
+    private transient int pointsHash;
 
     //Машинный эпсилон, нужен для того, чтобы сравнивать переменные с типами double и float
     private static final double EPS = 1e-9;
+    // Версия не меняется при смене формата: данные прежней версии (поле FunctionPoint[] points) читает readObject
     private static final long serialVersionUID = 1L;
+    // Версия компактного формата сериализации, записываемая в начале данных объекта
+    private static final byte SERIAL_FORMAT = 1;
+    // Допустимое относительное (к шагу) отклонение X от узла равномерной сетки
+    private static final double UNIFORM_TOLERANCE = 1e-6;
+    // Сколько отрезков пакетное вычисление проходит подряд, прежде чем перейти к поиску
+    private static final int SWEEP_LIMIT = 8;
+    // Меньше этой ёмкости массивы при удалении точек не уменьшаются
+    private static final int MIN_CAPACITY = 16;
 
     //Конструктор, создающий табулированную функцию с равномерными интервалами по X. Значения функции по умолчанию равны 0.
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -22,18 +47,21 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (pointsCount < 2) {
             throw new IllegalArgumentException("At least two points required");
         }
-            // Инициализация массива точек
+            // Инициализация массивов точек, Y = 0 по умолчанию
             this.pointsCount = pointsCount;
-            this.points = new FunctionPoint[pointsCount];
+            this.xs = new double[pointsCount];
+            this.ys = new double[pointsCount];
 
             // Вычисление шага по X между точками
             double step = (rightX - leftX) / (pointsCount - 1);
 
-            // Заполнение массива точек, Y = 0 по умолчанию
+            // Заполнение абсцисс точек
             for (int i = 0; i < pointsCount; i++) {
-                double x = leftX + i * step;
-                points[i] = new FunctionPoint(x, 0.0);
+                xs[i] = leftX + i * step;
             }
+            this.uniform = true;
+            this.gridStep = step;
+            recomputeHash();
         }
 
 
@@ -50,18 +78,21 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalArgumentException("At least two points required");
         }
 
-        // Инициализация массива точек
+        // Инициализация массивов точек
         this.pointsCount = values.length;
-        this.points = new FunctionPoint[pointsCount];
+        this.xs = new double[pointsCount];
+        this.ys = values.clone();
 
         // Вычисление шага по X между точками
         double step = (rightX - leftX) / (pointsCount - 1);
 
-        // Заполнение массива точек, Y = 0 по умолчанию
+        // Заполнение абсцисс точек
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, values[i]);
+            xs[i] = leftX + i * step;
         }
+        this.uniform = true;
+        this.gridStep = step;
+        recomputeHash();
     }
 
     //конструктор, получающий сразу все точки функции в виде массива объектов типа FunctionPoint
@@ -74,55 +105,172 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         this.pointsCount = points.length;
-        this.points = new FunctionPoint[pointsCount];
+        this.xs = new double[pointsCount];
+        this.ys = new double[pointsCount];
 
         // Проверяем и копируем первый элемент
-        this.points[0] = new FunctionPoint(points[0]); // копия
+        this.xs[0] = points[0].getX();
+        this.ys[0] = points[0].getY();
         for (int i = 1; i < points.length; i++) {
             if (points[i].getX() <= points[i - 1].getX() + EPS)  { //  строгое возрастание
                 throw new IllegalArgumentException("Points must be strictly increasing by X (index " + i + ")");
             }
-            this.points[i] = new FunctionPoint(points[i]); // копия
+            this.xs[i] = points[i].getX();
+            this.ys[i] = points[i].getY();
         }
+        detectUniformGrid();
+        recomputeHash();
+    }
+
+    //Конструктор, забирающий готовые массивы координат без копирования (используется при табулировании и чтении из потоков).
+    //Массивы должны иметь одинаковую длину не меньше двух, абсциссы проверяются на строгое возрастание
+    ArrayTabulatedFunction(double[] xs, double[] ys) {
+        if (xs.length < 2 || ys.length != xs.length) {
+            throw new IllegalArgumentException("At least two points required");
+        }
+        for (int i = 1; i < xs.length; i++) {
+            if (xs[i] <= xs[i - 1] + EPS) { //  строгое возрастание
+                throw new IllegalArgumentException("Points must be strictly increasing by X (index " + i + ")");
+            }
+        }
+        this.pointsCount = xs.length;
+        this.xs = xs;
+        this.ys = ys;
+        detectUniformGrid();
+        recomputeHash();
+    }
+
+    //Внутренние массивы координат для пакетного ввода-вывода без копирования. Значимы первые getPointsCount() элементов
+    double[] xValues() {
+        return xs;
+    }
+
+    double[] yValues() {
+        return ys;
+    }
+
+    // Пересчитывает хэш точек целиком (после построения или слияния массивов)
+    private void recomputeHash() {
+        int hash = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            hash ^= FunctionPoint.hashCode(xs[i], ys[i]);
+        }
+        pointsHash = hash;
+    }
+
+    // Проверяет, лежат ли точки на равномерной сетке (например, после TabulatedFunctions.tabulate), и запоминает шаг
+    private void detectUniformGrid() {
+        gridStep = (xs[pointsCount - 1] - xs[0]) / (pointsCount - 1);
+        uniform = true;
+        for (int i = 1; i < pointsCount - 1 && uniform; i++) {
+            uniform = isOnGrid(i, xs[i]);
+        }
+    }
+
+    // Проверяет, совпадает ли x с i-м узлом текущей равномерной сетки
+    private boolean isOnGrid(int index, double x) {
+        return Math.abs(x - (xs[0] + index * gridStep)) <= gridStep * UNIFORM_TOLERANCE;
     }
 
     //Возвращает значение левой границы области определения функции.
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xs[0];
     }
 
     //Возвращает значение правой границы области определения функции.
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xs[pointsCount - 1];
     }
 
     //Возвращает значение функции в точке x.
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder() || Double.isNaN(x)) {
             return Double.NaN;
         }
 
         // Проверка крайних точек
-        if (Math.abs(x - points[0].getX()) < EPS)
-            return points[0].getY();
-
-        if (Math.abs(x - points[pointsCount - 1].getX()) < EPS)
-            return points[pointsCount - 1].getY();
+        if (Math.abs(x - xs[0]) < EPS)
+            return ys[0];
 
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double x1 = points[i].getX();
-            double x2 = points[i+1].getX();
+        if (Math.abs(x - xs[pointsCount - 1]) < EPS)
+            return ys[pointsCount - 1];
 
-            if (Math.abs(x - x2) < EPS) return points[i+1].getY();
+        // Бинарный поиск отрезка [x1, x2], содержащего x: O(log n) вместо перебора всех отрезков
+        return interpolate(findSegment(x), x);
+    }
 
-            if (x > x1 && x < x2) {
-                double y1 = points[i].getY();
-                double y2 = points[i+1].getY();
-                return y1 + (y2 - y1) * ( (x - x1) / (x2 - x1) );
+    //Вычисляет значения функции во всех точках массива args. Для возрастающих аргументов отрезки находятся одним проходом
+    //по таблице (как при слиянии), при скачке аргумента назад или далеко вперёд - обычным поиском
+    public void getFunctionValues(double[] args, double[] out) {
+        if (out.length < args.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double leftX = xs[0];
+        double rightX = xs[pointsCount - 1];
+        int i = 0;
+
+        for (int k = 0; k < args.length; k++) {
+            double x = args[k];
+            if (x < leftX || x > rightX || Double.isNaN(x)) {
+                out[k] = Double.NaN;
+            } else if (Math.abs(x - leftX) < EPS) {
+                out[k] = ys[0];
+            } else if (Math.abs(x - rightX) < EPS) {
+                out[k] = ys[pointsCount - 1];
+            } else {
+                if (x < xs[i]) {
+                    i = findSegment(x);
+                } else {
+                    int steps = 0;
+                    while (i < pointsCount - 2 && xs[i + 1] <= x) {
+                        if (++steps > SWEEP_LIMIT) {
+                            i = findSegment(x);
+                            break;
+                        }
+                        i++;
+                    }
+                }
+                out[k] = interpolate(i, x);
             }
         }
+    }
+
+    //Значение на отрезке [xs[i], xs[i+1]]: значение в узле, если x совпадает с ним с точностью до EPS, иначе линейная интерполяция
+    private double interpolate(int i, double x) {
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+
+        if (x - x1 < EPS) return ys[i];
+        if (x2 - x < EPS) return ys[i + 1];
+
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+        return y1 + (y2 - y1) * ( (x - x1) / (x2 - x1) );
+    }
+
+    //Возвращает индекс i левого конца отрезка, для которого xs[i] <= x < xs[i+1] (0 <= i <= pointsCount - 2)
+    private int findSegment(double x) {
+        if (uniform) {
+            // На равномерной сетке индекс отрезка вычисляется напрямую, коррекция нужна лишь из-за погрешности округления
+            int i = (int) ((x - xs[0]) / gridStep);
+            if (i > pointsCount - 2) i = pointsCount - 2;
+            if (i < 0) i = 0;
+            while (i > 0 && xs[i] > x) i--;
+            while (i < pointsCount - 2 && xs[i + 1] <= x) i++;
+            return i;
+        }
 
-        return Double.NaN;
+        int low = 0;
+        int high = pointsCount - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 
 
@@ -137,7 +285,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xs[index], ys[index]);
     }
 
     //Заменяет точку по индексу на переданную.
@@ -149,12 +297,19 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         double newX = point.getX();
 
         // Для индексa = 0 или index = pointsCount-1 соответствующая проверка просто пропускается
-        if ((index > 0 && newX <= points[index - 1].getX() + EPS) ||
-                (index < pointsCount - 1 && newX >= points[index + 1].getX() - EPS)) {
+        if ((index > 0 && newX <= xs[index - 1] + EPS) ||
+                (index < pointsCount - 1 && newX >= xs[index + 1] - EPS)) {
             throw new InappropriateFunctionPointException("New X breaks order of points");
         }
 
-        points[index] = new FunctionPoint(point);
+        if (uniform && !isOnGrid(index, newX)) {
+            uniform = false;
+        }
+        ensureOwnArrays();
+        // Хэш старой точки убирается из XOR, хэш новой - добавляется
+        pointsHash ^= FunctionPoint.hashCode(xs[index], ys[index]) ^ FunctionPoint.hashCode(newX, point.getY());
+        xs[index] = newX;
+        ys[index] = point.getY();
         }
 
     //Возвращает X точки с указанным индексом.
@@ -162,7 +317,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return points[index].getX();
+        return xs[index];
     }
 
 
@@ -173,12 +328,18 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         // Для индексa = 0 или index = pointsCount-1 соответствующая проверка просто пропускается
-        if ((index > 0 && x <= points[index - 1].getX() + EPS) ||
-                (index < pointsCount - 1 && x >= points[index + 1].getX() - EPS)) {
+        if ((index > 0 && x <= xs[index - 1] + EPS) ||
+                (index < pointsCount - 1 && x >= xs[index + 1] - EPS)) {
             throw new InappropriateFunctionPointException("New X breaks order of points");
         }
 
-        points[index].setX(x);
+        // Сдвиг точки с узла сетки переводит функцию на общий путь вычисления
+        if (uniform && !isOnGrid(index, x)) {
+            uniform = false;
+        }
+        ensureOwnArrays();
+        pointsHash ^= FunctionPoint.hashCode(xs[index], ys[index]) ^ FunctionPoint.hashCode(x, ys[index]);
+        xs[index] = x;
     }
 
     //Возвращает ординату точки с указанным индексом.
@@ -186,7 +347,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        return points[index].getY();
+        return ys[index];
     }
 
     //Устанавливает новое значение ординаты точки с указанным индексом.
@@ -194,7 +355,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
-        points[index].setY(y);
+        ensureOwnArrays();
+        pointsHash ^= FunctionPoint.hashCode(xs[index], ys[index]) ^ FunctionPoint.hashCode(xs[index], y);
+        ys[index] = y;
     }
 
     //Удаляет точку табулированной функции по индексу.
@@ -205,45 +368,157 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
         }
+        ensureOwnArrays();
+        pointsHash ^= FunctionPoint.hashCode(xs[index], ys[index]);
 
         // Сдвигаем все элементы после удаляемого на одну позицию влево
-        System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
+        System.arraycopy(xs, index + 1, xs, index, pointsCount - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, pointsCount - index - 1);
 
         pointsCount--; // уменьшаем счётчик точек
+
+        // Когда занято меньше четверти массива, он уменьшается вдвое: ёмкость остаётся пропорциональной числу точек,
+        // а чередование добавлений и удалений на границе не вызывает копирования на каждой операции
+        if (pointsCount < xs.length / 4 && xs.length > MIN_CAPACITY) {
+            resize(Math.max(MIN_CAPACITY, xs.length / 2));
+        }
+
+        // Удаление крайней точки сохраняет равномерность сетки, удаление внутренней - нарушает её
+        if (index != 0 && index != pointsCount) {
+            uniform = false;
+        }
     }
 
     //Добавляет новую точку в таблицу, сохраняя при этом порядок по X.
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         double newX = point.getX();
 
-        // Проверяем, нет ли уже такой точки
-        for (int i = 0; i < pointsCount; i++) {
-            if (Math.abs(points[i].getX() - newX) < EPS) {
-                throw new InappropriateFunctionPointException("Point with same X already exists");
-            }
+        // Позиция вставки находится двоичным поиском; точка с тем же X может быть только среди соседей этой позиции
+        int insertIndex = insertionIndex(newX);
+        if ((insertIndex > 0 && Math.abs(xs[insertIndex - 1] - newX) < EPS)
+                || (insertIndex < pointsCount && Math.abs(xs[insertIndex] - newX) < EPS)) {
+            throw new InappropriateFunctionPointException("Point with same X already exists");
         }
 
-        // Если массив заполнен, создаём новый массив большего размера
-        if (pointsCount == points.length) {
-            FunctionPoint[] newPoints = new FunctionPoint[points.length * 2];
-            System.arraycopy(points, 0, newPoints, 0, pointsCount);
-            points = newPoints;
+        // Если массив заполнен, создаём новый массив большего размера (он уже собственный)
+        if (pointsCount == xs.length) {
+            resize(Math.max(MIN_CAPACITY, xs.length * 2));
+        } else {
+            ensureOwnArrays();
         }
 
-        // Найдём, куда вставить новую точку, чтобы сохранить порядок по X
-        int insertIndex = 0;
-        while (insertIndex < pointsCount && points[insertIndex].getX() < newX) {
-            insertIndex++;
+        // Равномерность сохраняется, только если точка добавлена на шаг сетки левее первой или правее последней
+        if (uniform && !isOnGrid(-1, newX) && !isOnGrid(pointsCount, newX)) {
+            uniform = false;
         }
 
-        // Сдвигаем элементы вправо, освобождая место
-        System.arraycopy(points, insertIndex, points, insertIndex + 1, pointsCount - insertIndex);
+        // Сдвигаем элементы вправо, освобождая место (при добавлении в конец сдвигать нечего)
+        System.arraycopy(xs, insertIndex, xs, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(ys, insertIndex, ys, insertIndex + 1, pointsCount - insertIndex);
 
-        // Вставляем копию точки (инкапсуляция!)
-        points[insertIndex] = new FunctionPoint(point);
+        // Записываем координаты точки (сам объект point не сохраняется - инкапсуляция!)
+        xs[insertIndex] = newX;
+        ys[insertIndex] = point.getY();
+        pointsHash ^= FunctionPoint.hashCode(newX, point.getY());
         pointsCount++;
     }
 
+    //Добавляет точки в любом порядке: они сортируются один раз и сливаются с таблицей за O(n + k log k),
+    //совпадения X разрешаются по правилу policy. При REJECT и совпадении таблица не меняется
+    public void addPoints(double[] newXs, double[] newYs, MergePolicy policy) throws InappropriateFunctionPointException {
+        double[][] points = TabulatedFunctions.sortedPoints(newXs, newYs, policy);
+        double[] addedXs = points[0];
+        double[] addedYs = points[1];
+        int added = addedXs.length;
+        if (added == 0) {
+            return;
+        }
+
+        // Все точки правее последней: дописываем в конец без слияния
+        if (addedXs[0] - xs[pointsCount - 1] >= EPS) {
+            if (pointsCount + added > xs.length) {
+                resize(Math.max(MIN_CAPACITY, Math.max(xs.length * 2, pointsCount + added)));
+            } else {
+                ensureOwnArrays();
+            }
+            for (int j = 0; j < added && uniform; j++) {
+                uniform = isOnGrid(pointsCount + j, addedXs[j]);
+            }
+            System.arraycopy(addedXs, 0, xs, pointsCount, added);
+            System.arraycopy(addedYs, 0, ys, pointsCount, added);
+            for (int j = 0; j < added; j++) {
+                pointsHash ^= FunctionPoint.hashCode(addedXs[j], addedYs[j]);
+            }
+            pointsCount += added;
+            return;
+        }
+
+        // Слияние в новые массивы: при отказе исходная таблица остаётся нетронутой
+        double[] mergedXs = new double[Math.max(xs.length, pointsCount + added)];
+        double[] mergedYs = new double[mergedXs.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < pointsCount || j < added) {
+            boolean existing = j == added || (i < pointsCount && xs[i] <= addedXs[j]);
+            double x = existing ? xs[i] : addedXs[j];
+            double y = existing ? ys[i++] : addedYs[j++];
+            if (count > 0 && x - mergedXs[count - 1] < EPS) {
+                // Совпали существующая и добавляемая точки: X всегда остаётся от существующей, Y - по правилу
+                if (policy == MergePolicy.REJECT) {
+                    throw new InappropriateFunctionPointException("Point with same X already exists");
+                }
+                if (existing) {
+                    mergedXs[count - 1] = x;
+                    if (policy == MergePolicy.KEEP_EXISTING) {
+                        mergedYs[count - 1] = y;
+                    }
+                } else if (policy == MergePolicy.OVERWRITE) {
+                    mergedYs[count - 1] = y;
+                }
+                continue;
+            }
+            mergedXs[count] = x;
+            mergedYs[count] = y;
+            count++;
+        }
+        xs = mergedXs;
+        ys = mergedYs;
+        sharedArrays = false;
+        pointsCount = count;
+        detectUniformGrid();
+        recomputeHash();
+    }
+
+    // Индекс первой точки, X которой не меньше x (pointsCount, если таких нет)
+    private int insertionIndex(double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Переносит точки в массивы новой ёмкости
+    private void resize(int capacity) {
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        sharedArrays = false;
+    }
+
+    // Перед изменением на месте: общие с копией массивы заменяются собственными
+    private void ensureOwnArrays() {
+        if (sharedArrays) {
+            resize(xs.length);
+        }
+    }
+
     public String toString() {
         if (pointsCount == 0) {
             return "{}";
@@ -255,7 +530,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
 
         for (int i = 0; i < pointsCount; i++) {
             // Добавляем строковое представление каждой точки
-            sb.append(points[i].toString());
+            sb.append(new FunctionPoint(xs[i], ys[i]).toString());
 
             if (i < pointsCount - 1) {
                 sb.append(", ");
@@ -266,6 +541,11 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         return sb.toString();
     }
 
+    //Неизменяемый снимок за O(1): он использует те же массивы, а эта функция скопирует их при следующем изменении
+    public TabulatedFunction freeze() {
+        return new FrozenTabulatedFunction((ArrayTabulatedFunction) clone());
+    }
+
     public boolean equals(Object o) {
         if (this == o) return true;
 
@@ -281,57 +561,35 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (o instanceof ArrayTabulatedFunction) {
             ArrayTabulatedFunction thatArray = (ArrayTabulatedFunction) o;
 
-            // Прямое сравнение массивов, используя FunctionPoint.equals()
+            // Прямое сравнение массивов координат с учетом EPS (как в FunctionPoint.equals())
             for (int i = 0; i < pointsCount; i++) {
-                // Сравниваем точки через FunctionPoint.equals()
-                if (!this.points[i].equals(thatArray.points[i])) {
+                if (Math.abs(this.xs[i] - thatArray.xs[i]) >= EPS || Math.abs(this.ys[i] - thatArray.ys[i]) >= EPS) {
                     return false;
                 }
             }
             return true;
         }
 
-        // Если это LinkedList
+        // Другие реализации: обе функции проходятся последовательно за один проход
         else {
-            // Последовательно сравниваем точки через геттеры
-            for (int i = 0; i < pointsCount; i++) {
-                double x1 = this.getPointX(i);
-                double y1 = this.getPointY(i);
-                double x2 = that.getPointX(i);
-                double y2 = that.getPointY(i);
-
-                // Сравниваем координаты с учетом EPS
-                if (Math.abs(x1 - x2) >= EPS || Math.abs(y1 - y2) >= EPS) {
-                    return false;
-                }
-            }
-            return true;
+            return TabulatedFunctions.pointsEqual(this, that);
         }
     }
 
+    //Хэш-коды всех точек, объединённые через XOR, и количество точек; XOR точек поддерживается при изменениях
     public int hashCode() {
-        int result = pointsCount;
-        // Последовательно объединяем хэш-коды всех точек через XOR
-        for (int i = 0; i < pointsCount; i++) {
-            // points[i].hashCode() вызывает переопределенный метод из FunctionPoint
-            result ^= points[i].hashCode();
-        }
-
-        return result;
+        return pointsCount ^ pointsHash;
     }
 
     public Object clone() {
         try {
-            // Поверхностное клонирование самого объекта
+            // Поверхностное клонирование за O(1): массивы координат остаются общими,
+            // и каждая из двух функций скопирует их перед своим первым изменением.
+            // Копирование изменяет эту функцию (признак sharedArrays), поэтому, как и остальные методы класса,
+            // не должно выполняться одновременно с изменением функции; одновременные копирования безопасны
             ArrayTabulatedFunction clone = (ArrayTabulatedFunction) super.clone();
-
-            // Глубокое клонирование: создаем новый массив
-            clone.points = new FunctionPoint[this.points.length];
-
-            // Глубокое клонирование: копируем точки одну за другой
-            for (int i = 0; i < this.pointsCount; i++) {
-                clone.points[i] = (FunctionPoint) this.points[i].clone();
-            }
+            sharedArrays = true;
+            clone.sharedArrays = true;
 
             return clone;
         } catch (CloneNotSupportedException e) {
@@ -339,4 +597,77 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
     }
 
+    //Копия с собственными массивами за O(n). В отличие от clone() эту функцию не изменяет,
+    //поэтому ConcurrentTabulatedFunction копирует ею опубликованный снимок, который читают другие потоки
+    ArrayTabulatedFunction copy() {
+        try {
+            ArrayTabulatedFunction copy = (ArrayTabulatedFunction) super.clone();
+            copy.xs = Arrays.copyOf(xs, xs.length);
+            copy.ys = Arrays.copyOf(ys, ys.length);
+            copy.sharedArrays = false;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    //Компактная сериализация: версия формата, количество точек, массивы X и Y ровно по количеству точек.
+    //Массивы примитивов записываются потоком целиком, без разбиения на блоки и без служебных полей
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeByte(SERIAL_FORMAT);
+        out.writeInt(pointsCount);
+        out.writeUnshared(xs.length == pointsCount ? xs : Arrays.copyOf(xs, pointsCount));
+        out.writeUnshared(ys.length == pointsCount ? ys : Arrays.copyOf(ys, pointsCount));
+    }
+
+    //Читает компактный формат, а также прежний, в котором сериализовались поля points (массив FunctionPoint) и pointsCount
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        double[] readXs;
+        double[] readYs;
+        int count;
+        if (fields.getObjectStreamClass().getField("points") != null) {
+            Object legacyPoints = fields.get("points", null);
+            count = fields.get("pointsCount", 0);
+            if (!(legacyPoints instanceof FunctionPoint[]) || count < 0 || count > ((FunctionPoint[]) legacyPoints).length) {
+                throw new InvalidObjectException("Corrupted tabulated function data");
+            }
+            FunctionPoint[] points = (FunctionPoint[]) legacyPoints;
+            readXs = new double[count];
+            readYs = new double[count];
+            for (int i = 0; i < count; i++) {
+                if (points[i] == null) {
+                    throw new InvalidObjectException("Corrupted tabulated function data");
+                }
+                readXs[i] = points[i].getX();
+                readYs[i] = points[i].getY();
+            }
+        } else {
+            int format = in.readByte();
+            if (format != SERIAL_FORMAT) {
+                throw new InvalidObjectException("Unsupported serialized format version " + format + " (expected " + SERIAL_FORMAT + ")");
+            }
+            count = in.readInt();
+            readXs = TabulatedFunctions.readCoordinates(in);
+            readYs = TabulatedFunctions.readCoordinates(in);
+            if (readXs.length != count || readYs.length != count) {
+                throw new InvalidObjectException("Corrupted tabulated function data");
+            }
+        }
+
+        if (count < 2) {
+            throw new InvalidObjectException("At least two points required");
+        }
+        for (int i = 1; i < count; i++) {
+            if (readXs[i] <= readXs[i - 1] + EPS) {
+                throw new InvalidObjectException("Points must be strictly increasing by X (index " + i + ")");
+            }
+        }
+        xs = readXs;
+        ys = readYs;
+        pointsCount = count;
+        detectUniformGrid();
+        recomputeHash();
+    }
 }
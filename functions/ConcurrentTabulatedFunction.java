@@ -0,0 +1,261 @@
+package functions;
+import java.io.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+//Табулированная функция, которую можно читать из многих потоков одновременно с изменением.
+//Точки хранятся в ArrayTabulatedFunction - снимке, опубликованном через volatile-поле:
+// - добавление, удаление и изменение X строят новый снимок из копии (copy-on-write) и публикуют его целиком,
+//   поэтому читатель всегда видит согласованную строго возрастающую сетку X;
+// - изменение Y записывается в текущий снимок на месте под блокировкой записи StampedLock,
+//   а читатели Y проверяют оптимистическое чтение и повторяют его, если во время чтения Y менялся.
+//Читатели не захватывают блокировок, пока запись Y не идёт постоянно, и никогда не изменяют опубликованный снимок:
+//копии для них и для записи строятся с собственными массивами (ArrayTabulatedFunction.copy). Изменения выполняются по одному.
+public class ConcurrentTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+    // Сколько раз читатель повторяет оптимистическое чтение, прежде чем дождаться блокировки чтения
+    private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+    // Текущий снимок; X в опубликованном снимке никогда не меняются
+    private volatile ArrayTabulatedFunction snapshot;
+    // Защищает Y опубликованного снимка от чтения во время записи
+    private final StampedLock valuesLock = new StampedLock();
+    // Выполняет изменения по одному, чтобы копия не потеряла одновременно записанный Y
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    //Конструктор, создающий табулированную функцию с равномерными интервалами по X. Значения функции по умолчанию равны 0.
+    public ConcurrentTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        snapshot = new ArrayTabulatedFunction(leftX, rightX, pointsCount);
+    }
+
+    // Создаёт табулированную функцию с заданными значениями, X распределяются равномерно между leftX и rightX.
+    public ConcurrentTabulatedFunction(double leftX, double rightX, double[] values) {
+        snapshot = new ArrayTabulatedFunction(leftX, rightX, values);
+    }
+
+    //конструктор, получающий сразу все точки функции в виде массива объектов типа FunctionPoint
+    public ConcurrentTabulatedFunction(FunctionPoint[] points) {
+        snapshot = new ArrayTabulatedFunction(points);
+    }
+
+    //Копия точек любой табулированной функции
+    public ConcurrentTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        if (function instanceof ConcurrentTabulatedFunction) {
+            // Точки другой такой функции копируются из её согласованной копии
+            function = ((ConcurrentTabulatedFunction) function).snapshot();
+        }
+        int pointsCount = function.getPointsCount();
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = function.getPointX(i);
+            ys[i] = function.getPointY(i);
+        }
+        snapshot = new ArrayTabulatedFunction(xs, ys);
+    }
+
+    // Чтение опубликованного снимка, согласованное по Y. Чтение может выполниться несколько раз,
+    // поэтому оно не должно изменять ничего, что читает само
+    private interface ReadValue {
+        double apply(ArrayTabulatedFunction current);
+    }
+
+    private interface Read<T> {
+        T apply(ArrayTabulatedFunction current);
+    }
+
+    private static final class Result<T> {
+        T value;
+    }
+
+    // Оптимистическое чтение; если во время него менялся Y, оно повторяется, а после OPTIMISTIC_ATTEMPTS попыток
+    // выполняется под блокировкой чтения
+    private double readValue(ReadValue read) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = valuesLock.tryOptimisticRead();
+            if (stamp != 0) {
+                double result = read.apply(snapshot);
+                if (valuesLock.validate(stamp)) {
+                    return result;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = valuesLock.readLock();
+        try {
+            return read.apply(snapshot);
+        } finally {
+            valuesLock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T read(Read<T> read) {
+        Result<T> result = new Result<>();
+        readValue(current -> {
+            result.value = read.apply(current);
+            return 0;
+        });
+        return result.value;
+    }
+
+    //Независимая копия текущего состояния за O(n): несколько чтений из неё согласованы между собой
+    public TabulatedFunction snapshot() {
+        return read(ArrayTabulatedFunction::copy);
+    }
+
+    //Неизменяемый снимок строится из согласованной копии и делит с ней массивы
+    public TabulatedFunction freeze() {
+        return snapshot().freeze();
+    }
+
+    // X опубликованного снимка не меняются, поэтому границы и абсциссы читаются без проверок
+    public double getLeftDomainBorder() {
+        return snapshot.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return snapshot.getRightDomainBorder();
+    }
+
+    public int getPointsCount() {
+        return snapshot.getPointsCount();
+    }
+
+    public double getPointX(int index) {
+        return snapshot.getPointX(index);
+    }
+
+    //Значение функции в точке x. Если во время вычисления менялся Y, вычисление повторяется по новому снимку
+    public double getFunctionValue(double x) {
+        return readValue(current -> current.getFunctionValue(x));
+    }
+
+    //Пакетное вычисление по одному снимку: все значения согласованы между собой.
+    //out может совпадать с xs, поэтому значения пишутся во временный массив и переносятся в out только после проверки:
+    //повторное чтение иначе взяло бы за аргументы уже записанные значения
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[] values = new double[xs.length];
+        readValue(current -> {
+            current.getFunctionValues(xs, values);
+            return 0;
+        });
+        System.arraycopy(values, 0, out, 0, xs.length);
+    }
+
+    public double getPointY(int index) {
+        return readValue(current -> current.getPointY(index));
+    }
+
+    // Координаты берутся из одного снимка: X в нём неизменен, Y проверяется оптимистическим чтением
+    public FunctionPoint getPoint(int index) {
+        return read(current -> current.getPoint(index));
+    }
+
+    //Изменяет Y на месте: снимок не копируется, читатели этого Y повторяют чтение
+    public void setPointY(int index, double y) {
+        updateLock.lock();
+        try {
+            ArrayTabulatedFunction current = snapshot;
+            if (index < 0 || index >= current.getPointsCount()) {
+                throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+            }
+            // Массивы опубликованного снимка ни с кем не общие, поэтому Y записывается в них на месте
+            long stamp = valuesLock.writeLock();
+            try {
+                current.setPointY(index, y);
+            } finally {
+                valuesLock.unlockWrite(stamp);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Структурные изменения: копия текущего снимка изменяется и публикуется целиком; при исключении снимок не меняется
+    private interface Update {
+        void apply(ArrayTabulatedFunction copy) throws InappropriateFunctionPointException;
+    }
+
+    private void update(Update update) throws InappropriateFunctionPointException {
+        updateLock.lock();
+        try {
+            ArrayTabulatedFunction copy = snapshot.copy();
+            update.apply(copy);
+            snapshot = copy;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        update(copy -> copy.setPoint(index, point));
+    }
+
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        update(copy -> copy.setPointX(index, x));
+    }
+
+    public void deletePoint(int index) {
+        updateLock.lock();
+        try {
+            ArrayTabulatedFunction copy = snapshot.copy();
+            copy.deletePoint(index);
+            snapshot = copy;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        update(copy -> copy.addPoint(point));
+    }
+
+    //Все точки добавляются одной копией снимка: читатели видят либо все новые точки, либо ни одной
+    public void addPoints(double[] xs, double[] ys, MergePolicy policy) throws InappropriateFunctionPointException {
+        update(copy -> copy.addPoints(xs, ys, policy));
+    }
+
+    // Строка, сравнение и хэш-код вычисляются по самому снимку без копирования и повторяются, если менялся Y
+    public String toString() {
+        return read(ArrayTabulatedFunction::toString);
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TabulatedFunction)) return false;
+        // У другой функции-обёртки берётся согласованная копия
+        TabulatedFunction that = o instanceof ConcurrentTabulatedFunction ? ((ConcurrentTabulatedFunction) o).snapshot() : (TabulatedFunction) o;
+        return read(current -> current.equals(that));
+    }
+
+    public int hashCode() {
+        return read(ArrayTabulatedFunction::hashCode);
+    }
+
+    public Object clone() {
+        return new ConcurrentTabulatedFunction(this);
+    }
+
+    // Записывается согласованный снимок; блокировки восстанавливаются в свободном состоянии
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        updateLock.lock();
+        try {
+            out.defaultWriteObject();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (snapshot == null) {
+            throw new InvalidObjectException("Corrupted tabulated function data");
+        }
+    }
+}
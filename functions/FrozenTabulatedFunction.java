@@ -0,0 +1,115 @@
+package functions;
+import java.io.*;
+
+//Неизменяемая табулированная функция - замороженный снимок другой функции (см. TabulatedFunction.freeze()).
+//Точки хранятся в ArrayTabulatedFunction, массивы которой могут быть общими с исходной функцией:
+//исходная функция копирует их перед своим следующим изменением, а снимок их никогда не меняет.
+//Поэтому снимок можно передавать и читать из нескольких потоков без копирования и без блокировок
+public final class FrozenTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Точки снимка; изменяющие методы этого объекта никогда не вызываются
+    private final ArrayTabulatedFunction points;
+
+    FrozenTabulatedFunction(ArrayTabulatedFunction points) {
+        this.points = points;
+    }
+
+    // Точки снимка для быстрых путей обхода внутри пакета
+    ArrayTabulatedFunction points() {
+        return points;
+    }
+
+    public double getLeftDomainBorder() {
+        return points.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return points.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        return points.getFunctionValue(x);
+    }
+
+    public void getFunctionValues(double[] xs, double[] out) {
+        points.getFunctionValues(xs, out);
+    }
+
+    public int getPointsCount() {
+        return points.getPointsCount();
+    }
+
+    public FunctionPoint getPoint(int index) {
+        return points.getPoint(index);
+    }
+
+    public double getPointX(int index) {
+        return points.getPointX(index);
+    }
+
+    public double getPointY(int index) {
+        return points.getPointY(index);
+    }
+
+    //Снимок неизменяем, поэтому все изменяющие методы запрещены
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    public void addPoints(double[] xs, double[] ys, MergePolicy policy) {
+        throw new UnsupportedOperationException("Frozen tabulated function is read-only");
+    }
+
+    //Снимок уже заморожен
+    public TabulatedFunction freeze() {
+        return this;
+    }
+
+    public String toString() {
+        return points.toString();
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        // Другой снимок сравнивается по его массивам напрямую
+        return points.equals(o instanceof FrozenTabulatedFunction ? ((FrozenTabulatedFunction) o).points : o);
+    }
+
+    //Хэш-код хранится в точках снимка и не пересчитывается: снимок не меняется
+    public int hashCode() {
+        return points.hashCode();
+    }
+
+    //Содержимое неизменяемо, поэтому копия разделяет точки с исходным снимком
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (points == null) {
+            throw new InvalidObjectException("Corrupted tabulated function data");
+        }
+    }
+}
@@ -8,6 +8,16 @@ public interface Function {
 
     double getFunctionValue(double x);//возвращает значение функции в заданной точке
 
+    //вычисляет значения функции во всех точках массива xs и записывает их в out (out может совпадать с xs)
+    default void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
+
 }
 
 
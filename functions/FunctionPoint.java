@@ -68,6 +68,11 @@ public class FunctionPoint implements Serializable {
     }
 
     public int hashCode() {
+        return hashCode(x, y);
+    }
+
+    // Хэш-код точки с координатами (x; y) без создания объекта точки, используется табулированными функциями
+    static int hashCode(double x, double y) {
         // Получаем 64-битное представление x и y
         long bitsX = Double.doubleToLongBits(x);
         long bitsY = Double.doubleToLongBits(y);
@@ -1,5 +1,6 @@
 package functions;
 
+import functions.basic.*;
 import functions.meta.*;
 
 //Класс, содержащий вспомогательные статические методы для работы с функциями
@@ -11,33 +12,158 @@ public final class Functions {
 
     }
 
+    //Допустимая близость коэффициента scaleX к нулю (как в Scale)
+    private static final double EPS = 1e-9;
+
+    //Все методы построения упрощают дерево при создании: вложенные сдвиги и масштабирования сливаются в один узел,
+    //тождественные операции отбрасываются, постоянные подвыражения сворачиваются в Constant. Области определения
+    //упрощённых функций совпадают с областями определения, которые вычислили бы исходные узлы Shift, Scale, Sum и т.д.
+    //Значение или область определения другой функции сворачивается в Constant только у неизменяемых функций (см. isPure):
+    //табулированная функция, кэш или дерево над ними могут измениться, и узел над ними сохраняется, чтобы следовать за изменением
+
     //возвращает объект функции, полученной из исходной сдвигом вдоль осей
     public static Function shift(Function f, double shiftX, double shiftY) {
-        return new Shift(f, shiftX, shiftY);
+        if (shiftX == 0 && shiftY == 0) {
+            return f;
+        }
+        if (f.getClass() == Shift.class) {
+            // shift(shift(g, a, b), c, d) = shift(g, a + c, b + d)
+            Shift inner = (Shift) f;
+            return shift(inner.getFunction(), inner.getShiftX() + shiftX, inner.getShiftY() + shiftY);
+        }
+        Shift shift = new Shift(f, shiftX, shiftY);
+        if (f.getClass() == Constant.class) {
+            return new Constant(((Constant) f).getValue() + shiftY, shift.getLeftDomainBorder(), shift.getRightDomainBorder());
+        }
+        return shift;
     }
 
     //возвращает объект функции, полученной из исходной масштабированием вдоль осей
     public static Function scale(Function f, double scaleX, double scaleY) {
-        return new Scale(f, scaleX, scaleY);
+        if (Math.abs(scaleX) < EPS) {
+            throw new IllegalArgumentException("The scaling factor scaleX cannot be zero (too close to " + EPS + ").");
+        }
+        if (scaleX == 1 && scaleY == 1) {
+            return f;
+        }
+        if (f.getClass() == Scale.class) {
+            // scale(scale(g, a, b), c, d) = scale(g, a * c, b * d), если произведение не слишком близко к нулю
+            Scale inner = (Scale) f;
+            double mergedScaleX = inner.getScaleX() * scaleX;
+            if (Math.abs(mergedScaleX) >= EPS) {
+                return scale(inner.getFunction(), mergedScaleX, inner.getScaleY() * scaleY);
+            }
+        }
+        Scale scale = new Scale(f, scaleX, scaleY);
+        if (f.getClass() == Constant.class) {
+            // Область определения - как у масштабированной функции
+            return new Constant(((Constant) f).getValue() * scaleY, scale.getLeftDomainBorder(), scale.getRightDomainBorder());
+        }
+        return scale;
     }
 
     //возвращает объект функции, являющейся заданной степенью исходной
     public static Function power(Function f, double power) {
+        if (power == 1) {
+            return f;
+        }
+        if (power == 0 && isPure(f)) {
+            // Math.pow(y, 0) = 1 для любого y, в том числе NaN
+            return new Constant(1, f.getLeftDomainBorder(), f.getRightDomainBorder());
+        }
+        if (f.getClass() == Constant.class) {
+            return new Constant(Math.pow(((Constant) f).getValue(), power), f.getLeftDomainBorder(), f.getRightDomainBorder());
+        }
+        if (f.getClass() == Power.class) {
+            // (g^p)^q = g^(p*q) верно для любых g только при целых p и q
+            Power inner = (Power) f;
+            if (isInteger(inner.getPower()) && isInteger(power)) {
+                return power(inner.getBase(), inner.getPower() * power);
+            }
+        }
         return new Power(f, power);
     }
 
     //возвращает объект функции, являющейся суммой двух исходных
     public static Function sum(Function f1, Function f2) {
-        return new Sum(f1, f2);
+        Sum sum = new Sum(f1, f2);
+        if (f1.getClass() == Constant.class && f2.getClass() == Constant.class) {
+            return new Constant(((Constant) f1).getValue() + ((Constant) f2).getValue(),
+                    sum.getLeftDomainBorder(), sum.getRightDomainBorder());
+        }
+        // Прибавление константы, определённой везде, - это сдвиг по оси ординат
+        if (isConstantEverywhere(f2)) {
+            return shift(f1, 0, ((Constant) f2).getValue());
+        }
+        if (isConstantEverywhere(f1)) {
+            return shift(f2, 0, ((Constant) f1).getValue());
+        }
+        return sum;
     }
 
     //возвращает объект функции, являющейся произведением двух исходных
     public static Function mult(Function f1, Function f2) {
-        return new Mult(f1, f2);
+        Mult mult = new Mult(f1, f2);
+        if (f1.getClass() == Constant.class && f2.getClass() == Constant.class) {
+            return new Constant(((Constant) f1).getValue() * ((Constant) f2).getValue(),
+                    mult.getLeftDomainBorder(), mult.getRightDomainBorder());
+        }
+        // Умножение на константу, определённую везде, - это масштабирование по оси ординат
+        if (isConstantEverywhere(f2)) {
+            return scale(f1, 1, ((Constant) f2).getValue());
+        }
+        if (isConstantEverywhere(f1)) {
+            return scale(f2, 1, ((Constant) f1).getValue());
+        }
+        return mult;
     }
 
     //возвращает объект функции, являющейся композицией двух исходных
     public static Function composition(Function f1, Function f2) {
+        // Область определения композиции - область определения внутренней функции
+        if (f2.getClass() == Constant.class && isPure(f1)) {
+            return new Constant(f1.getFunctionValue(((Constant) f2).getValue()), f2.getLeftDomainBorder(), f2.getRightDomainBorder());
+        }
+        if (f1.getClass() == Constant.class && isPure(f2)) {
+            return new Constant(((Constant) f1).getValue(), f2.getLeftDomainBorder(), f2.getRightDomainBorder());
+        }
         return new Composition(f1, f2);
     }
+
+    private static boolean isConstantEverywhere(Function f) {
+        return f.getClass() == Constant.class && ((Constant) f).isDefinedEverywhere();
+    }
+
+    // Значения и область определения функции не могут измениться после создания: Constant и базовые функции
+    // (точное совпадение класса - у наследника может быть изменяемое состояние)
+    private static boolean isPure(Function f) {
+        Class<?> type = f.getClass();
+        return type == Constant.class || type == Sin.class || type == Cos.class || type == Tan.class
+                || type == Exp.class || type == Log.class;
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+
+    //возвращает функцию, вычисляющую исходное дерево функций одним циклом по скомпилированной программе
+    public static Function compile(Function f) {
+        return new CompiledFunction(f);
+    }
+
+    //возвращает функцию, запоминающую значения исходной в ограниченном кэше с параметрами config
+    public static CachedFunction cached(Function f, CachedFunction.Config config) {
+        return new CachedFunction(f, config);
+    }
+
+    //возвращает функцию, запоминающую значения исходной в кэше с параметрами по умолчанию (4096 значений, LRU)
+    public static CachedFunction cached(Function f) {
+        return new CachedFunction(f);
+    }
+
+    //возвращает функцию, вычисляемую на [left, right] по таблице значений исходной с погрешностью не больше maxError,
+    //а вне отрезка - исходной функцией
+    public static ApproximatedFunction approximate(Function f, double left, double right, double maxError) {
+        return new ApproximatedFunction(f, left, right, maxError);
+    }
 }
\ No newline at end of file
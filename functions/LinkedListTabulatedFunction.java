@@ -1,29 +1,99 @@
 package functions;
-import java.io.Serializable;
+import java.io.*;
+import java.util.ConcurrentModificationException;
 
 public class LinkedListTabulatedFunction implements TabulatedFunction, Serializable  {
     private static final double EPS = 1e-9;
     private static final long serialVersionUID = 1L;
+    // Версия компактного формата сериализации, записываемая в начале данных объекта
+    private static final byte SERIAL_FORMAT = 1;
 
-    //  Внутренний класс узла списка
+    //  Внутренний класс узла списка. Координаты хранятся в самом узле, без отдельного объекта FunctionPoint.
+    //  Узлы больше не сериализуются, но остаются Serializable, чтобы читать потоки прежнего формата
     private static class FunctionNode implements Serializable {
         private static final long serialVersionUID = 1L;
-        FunctionPoint point;
+        double x;
+        double y;
         FunctionNode next;
         FunctionNode prev;
 
-        FunctionNode(FunctionPoint point) {
-            this.point = point;
+        FunctionNode(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        // В потоках прежнего формата узел хранил ссылку на FunctionPoint (у головы списка - null)
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            ObjectInputStream.GetField fields = in.readFields();
+            FunctionPoint point = (FunctionPoint) fields.get("point", null);
+            if (point != null) {
+                x = point.getX();
+                y = point.getY();
+            }
+            next = (FunctionNode) fields.get("next", null);
+            prev = (FunctionNode) fields.get("prev", null);
         }
     }
 
+    // Узел вместе с его номером. Объект неизменяем и заменяется целиком одной записью ссылки,
+    // поэтому читатели из разных потоков не могут получить узел от одной пары, а номер от другой
+    private static final class NodeAtIndex {
+        final FunctionNode node;
+        final int index;
+
+        NodeAtIndex(FunctionNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    // Разреженный индекс узлов; массив заполняется до записи в final-поле, поэтому поток, получивший ссылку на объект,
+    // видит его заполненным и без синхронизации
+    private static final class SampledIndex {
+        final FunctionNode[] nodes;
+
+        SampledIndex(FunctionNode[] nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    // Список не сериализуется по умолчанию: writeObject записывает только количество точек и их координаты
+    private transient FunctionNode head;
+    private transient int pointsCount;
+
+    // Шаг разреженного индекса: в индекс попадает каждый INDEX_STEP-й узел списка
+    private static final int INDEX_STEP = 16;
+
+    // Разреженный индекс узлов для поиска отрезка за O(log n + INDEX_STEP), перестраивается лениво после изменения структуры списка
+    private transient SampledIndex sampledIndex;
+
+    // Признак равномерной сетки по X: пока он установлен, номер отрезка для x вычисляется за O(1)
+    private transient boolean uniform;
+    // Шаг равномерной сетки (имеет смысл только при uniform == true)
+    private transient double gridStep;
+    // Допустимое относительное (к шагу) отклонение X от узла равномерной сетки
+    private static final double UNIFORM_TOLERANCE = 1e-6;
+
+    // Последний узел, полученный по индексу: последовательный доступ getPointX(i), getPointX(i + 1), ... стоит O(1) на шаг
+    private transient NodeAtIndex lastAccessed;
+
+    // Счётчик структурных изменений (добавление и удаление точек), по нему курсоры обнаруживают изменение списка
+    private transient int modCount;
+
+    // XOR хэш-кодов всех точек: поддерживается при каждом изменении, поэтому hashCode() вычисляется за O(1)
+    private transient int pointsHash;
 
-    private FunctionNode head;
-    private int pointsCount;
+    // Необязательное повторное использование узлов: удалённые узлы складываются в односвязный список (по ссылке next)
+    // и берутся из него при добавлении точек, так что чередование добавлений и удалений не создаёт мусора
+    private transient boolean recycleNodes;
+    private transient FunctionNode freeNodes;
+    private transient int freeNodesCount;
+    // Больше стольких узлов список свободных узлов не хранит
+    private static final int FREE_NODES_LIMIT = 64;
 
     // Конструктор по умолчанию (создает пустой список)
     public LinkedListTabulatedFunction() {
-        head = new FunctionNode(null);
+        head = new FunctionNode(0, 0);
         head.next = head;
         head.prev = head;
         pointsCount = 0;
@@ -40,8 +110,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         double step = (rightX - leftX) / (pointsCount - 1);
         for (int i = 0; i < pointsCount; i++) {
             double x = leftX + i * step;
-            addNodeToTail(new FunctionPoint(x, 0.0));
+            addNodeToTail(x, 0.0);
         }
+        uniform = true;
+        gridStep = step;
     }
 
     // Конструктор с массивом значений
@@ -55,8 +127,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         double step = (rightX - leftX) / (values.length - 1);
         for (int i = 0; i < values.length; i++) {
             double x = leftX + i * step;
-            addNodeToTail(new FunctionPoint(x, values[i]));
+            addNodeToTail(x, values[i]);
         }
+        uniform = true;
+        gridStep = step;
     }
     // в классе LinkedListTabulatedFunction (package functions)
 
@@ -73,51 +147,214 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
 
         // Копируем первый элемент
-        FunctionPoint prevCopy = new FunctionPoint(points[0]);
-        addNodeToTail(prevCopy);
+        addNodeToTail(points[0].getX(), points[0].getY());
 
         for (int i = 1; i < points.length; i++) {
             if (points[i].getX() <= points[i - 1].getX() + EPS) {//  строгое возрастание
                 throw new IllegalArgumentException("Points must be strictly increasing by X (index " + i + ")");
             }
-            addNodeToTail(new FunctionPoint(points[i]));// вставляем копию
+            addNodeToTail(points[i].getX(), points[i].getY());// копируем координаты
+        }
+        detectUniformGrid();
+    }
+
+    // Проверяет, лежат ли точки на равномерной сетке, и запоминает шаг
+    private void detectUniformGrid() {
+        gridStep = (getRightDomainBorder() - getLeftDomainBorder()) / (pointsCount - 1);
+        uniform = true;
+        FunctionNode current = head.next.next;
+        for (int i = 1; i < pointsCount - 1 && uniform; i++) {
+            uniform = isOnGrid(i, current.x);
+            current = current.next;
+        }
+    }
+
+    // Проверяет, совпадает ли x с i-м узлом текущей равномерной сетки
+    private boolean isOnGrid(int index, double x) {
+        return Math.abs(x - (getLeftDomainBorder() + index * gridStep)) <= gridStep * UNIFORM_TOLERANCE;
+    }
+
+    // Включает или выключает повторное использование удалённых узлов при добавлении точек (по умолчанию выключено)
+    public void setNodeRecycling(boolean enabled) {
+        recycleNodes = enabled;
+        if (!enabled) {
+            freeNodes = null;
+            freeNodesCount = 0;
+        }
+    }
+
+    // Новый узел: из списка свободных узлов, если он не пуст, иначе созданный заново
+    private FunctionNode newNode(double x, double y) {
+        FunctionNode node = freeNodes;
+        if (node == null)
+            return new FunctionNode(x, y);
+        freeNodes = node.next;
+        freeNodesCount--;
+        node.x = x;
+        node.y = y;
+        return node;
+    }
+
+    // Отдаёт удалённый из списка узел на повторное использование
+    private void releaseNode(FunctionNode node) {
+        node.prev = null;
+        if (recycleNodes && freeNodesCount < FREE_NODES_LIMIT) {
+            node.next = freeNodes;
+            freeNodes = node;
+            freeNodesCount++;
+        } else {
+            node.next = null;
         }
     }
 
     // Добавление узла в конец списка
-    private FunctionNode addNodeToTail(FunctionPoint point) {
-        FunctionNode newNode = new FunctionNode(point);
+    private FunctionNode addNodeToTail(double x, double y) {
+        FunctionNode newNode = newNode(x, y);
         newNode.prev = head.prev;
         newNode.next = head;
         head.prev.next = newNode;
         head.prev = newNode;
+        pointsHash ^= FunctionPoint.hashCode(x, y);
         pointsCount++;
+        structureChanged();
         return newNode;
     }
 
-    // Поиск узла по индексу
+    // Сбрасывает всё, что зависит от расположения узлов, после добавления или удаления точки
+    private void structureChanged() {
+        sampledIndex = null;
+        lastAccessed = null;
+        modCount++;
+    }
+
+    // Поиск узла по индексу: обход начинается с ближайшего из начала списка, конца списка и последнего найденного узла
     private FunctionNode getNodeByIndex(int index) {
         if (index < 0 || index >= pointsCount)
             throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
 
         FunctionNode current;
+        int currentIndex;
         if (index < pointsCount / 2) {
             current = head.next;
-            for (int i = 0; i < index; i++) current = current.next;
+            currentIndex = 0;
         } else {
             current = head.prev;
-            for (int i = pointsCount - 1; i > index; i--) current = current.prev;
+            currentIndex = pointsCount - 1;
+        }
+        // Ссылка читается один раз: узел и его номер берутся из одного объекта, даже если другой поток его заменяет
+        NodeAtIndex cached = lastAccessed;
+        if (cached != null && Math.abs(index - cached.index) < Math.abs(index - currentIndex)) {
+            current = cached.node;
+            currentIndex = cached.index;
+        }
+
+        for (; currentIndex < index; currentIndex++) current = current.next;
+        for (; currentIndex > index; currentIndex--) current = current.prev;
+
+        if (cached == null || cached.index != index) {
+            lastAccessed = new NodeAtIndex(current, index);
         }
         return current;
     }
 
+    // Возвращает курсор для последовательного обхода точек и вычисления значений при возрастающих x
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Курсор по списку точек. Запоминает текущий узел, поэтому последовательный обход точек и вычисление значений
+    // в неубывающих x стоят O(1) на шаг в среднем. После добавления или удаления точек курсор становится недействительным.
+    public final class Cursor {
+        private FunctionNode node = head;
+        private final int expectedModCount = modCount;
+
+        private Cursor() {
+        }
+
+        // Есть ли точка после текущей
+        public boolean hasNext() {
+            checkForModification();
+            return node.next != head;
+        }
+
+        // Переходит к следующей точке; возвращает false, если точки закончились
+        public boolean next() {
+            if (!hasNext())
+                return false;
+            node = node.next;
+            return true;
+        }
+
+        // Абсцисса текущей точки
+        public double getX() {
+            return currentNode().x;
+        }
+
+        // Ордината текущей точки
+        public double getY() {
+            return currentNode().y;
+        }
+
+        // Изменяет ординату текущей точки
+        public void setY(double y) {
+            changeY(currentNode(), y);
+        }
+
+        // Возвращает курсор в положение перед первой точкой
+        public void reset() {
+            checkForModification();
+            node = head;
+        }
+
+        // Значение функции в точке x. Поиск отрезка продолжается от текущего узла, поэтому для возрастающих x
+        // список проходится один раз; при скачке назад или далеко вперёд используется разреженный индекс.
+        // Курсор остаётся на левом конце найденного отрезка.
+        public double getFunctionValue(double x) {
+            checkForModification();
+            FunctionNode first = head.next;
+            FunctionNode last = head.prev;
+            if (x < first.x || x > last.x || Double.isNaN(x))
+                return Double.NaN;
+            if (Math.abs(x - first.x) < EPS)
+                return first.y;
+            if (Math.abs(x - last.x) < EPS)
+                return last.y;
+
+            if (node == head || x < node.x) {
+                node = findSegment(x);
+            } else {
+                int steps = 0;
+                while (node.next.next != head && node.next.x <= x) {
+                    if (++steps > INDEX_STEP) {
+                        node = findSegment(x);
+                        break;
+                    }
+                    node = node.next;
+                }
+            }
+            return interpolate(node, x);
+        }
+
+        private FunctionNode currentNode() {
+            checkForModification();
+            if (node == head)
+                throw new IllegalStateException("Cursor is not positioned on a point");
+            return node;
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException("List was structurally modified after the cursor was created");
+        }
+    }
+
     // Получение границ функции
     public double getLeftDomainBorder() {
-        return head.next.point.getX();
+        return head.next.x;
     }
 
     public double getRightDomainBorder() {
-        return head.prev.point.getX();
+        return head.prev.x;
     }
 
     // Количество точек
@@ -127,29 +364,107 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
     // Линейная интерполяция
     public double getFunctionValue(double x) {
-        if (x < getLeftDomainBorder() || x > getRightDomainBorder())
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder() || Double.isNaN(x))
             return Double.NaN;
 
-        FunctionNode current = head.next;
-        while (current.next != head) {
-            double x1 = current.point.getX();
-            double y1 = current.point.getY();
-            double x2 = current.next.point.getX();
-            double y2 = current.next.point.getY();
+        // Проверка крайних точек
+        FunctionNode first = head.next;
+        FunctionNode last = head.prev;
+        if (Math.abs(x - first.x) < EPS)
+            return first.y;
+        if (Math.abs(x - last.x) < EPS)
+            return last.y;
 
-            if (Math.abs(x - x1) < EPS)
-                return y1;
-            if (x > x1 && x < x2)
-                return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+        return interpolate(findSegment(x), x);
+    }
+
+    // Пакетное вычисление через курсор: для возрастающих аргументов отрезки находятся одним проходом по списку (как при слиянии)
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        Cursor cursor = cursor();
+        for (int k = 0; k < xs.length; k++) {
+            out[k] = cursor.getFunctionValue(xs[k]);
+        }
+    }
+
+    // Значение на отрезке от узла node до следующего: значение в узле, если x совпадает с ним с точностью до EPS, иначе линейная интерполяция
+    private double interpolate(FunctionNode node, double x) {
+        double x1 = node.x;
+        double y1 = node.y;
+        double x2 = node.next.x;
+        double y2 = node.next.y;
+
+        if (x - x1 < EPS)
+            return y1;
+        if (x2 - x < EPS)
+            return y2;
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    // Возвращает узел, являющийся левым концом отрезка, содержащего x (x1 <= x < x2), не считая последнего узла
+    private FunctionNode findSegment(double x) {
+        FunctionNode[] index = getSampledIndex().nodes;
+
+        if (uniform) {
+            // На равномерной сетке номер отрезка вычисляется напрямую, узел берётся из разреженного индекса за O(INDEX_STEP)
+            int i = (int) ((x - getLeftDomainBorder()) / gridStep);
+            if (i > pointsCount - 2) i = pointsCount - 2;
+            if (i < 0) i = 0;
+            FunctionNode current = index[i / INDEX_STEP];
+            for (int k = i % INDEX_STEP; k > 0; k--)
+                current = current.next;
+
+            // Коррекция на случай погрешности округления
+            while (current != head.next && current.x > x)
+                current = current.prev;
+            while (current.next.next != head && current.next.x <= x)
+                current = current.next;
+            return current;
+        }
 
+        // Бинарный поиск по разреженному индексу
+        int low = 0;
+        int high = index.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (index[mid].x <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        // Досматриваем не более INDEX_STEP узлов до нужного отрезка
+        FunctionNode current = index[low];
+        while (current.next.next != head && current.next.x <= x)
             current = current.next;
+        return current;
+    }
+
+    // Возвращает разреженный индекс, перестраивая его при необходимости.
+    // Одновременно читающие потоки могут построить индекс каждый сам, но увидеть недостроенный не могут
+    private SampledIndex getSampledIndex() {
+        SampledIndex index = sampledIndex;
+        if (index == null) {
+            FunctionNode[] nodes = new FunctionNode[(pointsCount + INDEX_STEP - 1) / INDEX_STEP];
+            FunctionNode current = head.next;
+            for (int i = 0; i < pointsCount; i++) {
+                if (i % INDEX_STEP == 0)
+                    nodes[i / INDEX_STEP] = current;
+                current = current.next;
+            }
+            index = new SampledIndex(nodes);
+            sampledIndex = index;
         }
-        return Double.NaN;
+        return index;
     }
 
     // Получение точки
     public FunctionPoint getPoint(int index) {
-        return new FunctionPoint(getNodeByIndex(index).point);
+        FunctionNode node = getNodeByIndex(index);
+        return new FunctionPoint(node.x, node.y);
     }
 
     // Изменение всей точки
@@ -157,38 +472,53 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         FunctionNode node = getNodeByIndex(index);
         double newX = point.getX();
 
-        if ((index > 0 && newX <= getNodeByIndex(index - 1).point.getX() + EPS) ||
-                (index < pointsCount - 1 && newX >= getNodeByIndex(index + 1).point.getX() - EPS)) {
+        if ((index > 0 && newX <= node.prev.x + EPS) ||
+                (index < pointsCount - 1 && newX >= node.next.x - EPS)) {
             throw new InappropriateFunctionPointException("New X breaks order of points");
         }
 
-        node.point = new FunctionPoint(point);
+        if (uniform && !isOnGrid(index, newX))
+            uniform = false;
+        // Хэш старой точки убирается из XOR, хэш новой - добавляется
+        pointsHash ^= FunctionPoint.hashCode(node.x, node.y) ^ FunctionPoint.hashCode(newX, point.getY());
+        node.x = newX;
+        node.y = point.getY();
     }
 
     // Получение X
     public double getPointX(int index) {
-        return getNodeByIndex(index).point.getX();
+        return getNodeByIndex(index).x;
     }
     // Получение Y
     public double getPointY(int index) {
-        return getNodeByIndex(index).point.getY();
+        return getNodeByIndex(index).y;
     }
 
     // Изменение X
     public void setPointX(int index, double x) throws InappropriateFunctionPointException {
         FunctionNode node = getNodeByIndex(index);
 
-        if ((index > 0 && x <= getNodeByIndex(index - 1).point.getX() + EPS) ||
-                (index < pointsCount - 1 && x >= getNodeByIndex(index + 1).point.getX() - EPS)) {
+        if ((index > 0 && x <= node.prev.x + EPS) ||
+                (index < pointsCount - 1 && x >= node.next.x - EPS)) {
             throw new InappropriateFunctionPointException("New X breaks order of points");
         }
 
-        node.point.setX(x);
+        // Сдвиг точки с узла сетки переводит функцию на общий путь вычисления
+        if (uniform && !isOnGrid(index, x))
+            uniform = false;
+        pointsHash ^= FunctionPoint.hashCode(node.x, node.y) ^ FunctionPoint.hashCode(x, node.y);
+        node.x = x;
     }
 
     // Изменение Y
     public void setPointY(int index, double y) {
-        getNodeByIndex(index).point.setY(y);
+        changeY(getNodeByIndex(index), y);
+    }
+
+    // Записывает ординату узла, поддерживая хэш точек
+    private void changeY(FunctionNode node, double y) {
+        pointsHash ^= FunctionPoint.hashCode(node.x, node.y) ^ FunctionPoint.hashCode(node.x, y);
+        node.y = y;
     }
 
     // Удаление точки
@@ -199,34 +529,93 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         FunctionNode node = getNodeByIndex(index);
         node.prev.next = node.next;
         node.next.prev = node.prev;
+        pointsHash ^= FunctionPoint.hashCode(node.x, node.y);
+        releaseNode(node);
         pointsCount--;
+        structureChanged();
+
+        // Удаление крайней точки сохраняет равномерность сетки, удаление внутренней - нарушает её
+        if (index != 0 && index != pointsCount)
+            uniform = false;
     }
 
     // Добавление новой точки (по значению)
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         double newX = point.getX();
 
-        // Проверяем, нет ли точки с таким же X
+        // Ищем место для вставки; точка с таким же X может быть только среди соседей этого места
         FunctionNode current = head.next;
-        while (current != head) {
-            if (Math.abs(current.point.getX() - newX) < EPS)
-                throw new InappropriateFunctionPointException("Point with same X already exists");
+        while (current != head && current.x < newX)
             current = current.next;
-        }
+        if ((current != head && Math.abs(current.x - newX) < EPS)
+                || (current.prev != head && Math.abs(current.prev.x - newX) < EPS))
+            throw new InappropriateFunctionPointException("Point with same X already exists");
 
-        // Ищем место для вставки
-        current = head.next;
-        while (current != head && current.point.getX() < newX)
-            current = current.next;
+        // Равномерность сохраняется, только если точка добавлена на шаг сетки левее первой или правее последней
+        if (uniform && !isOnGrid(-1, newX) && !isOnGrid(pointsCount, newX))
+            uniform = false;
 
         // Вставляем новую точку
-        FunctionNode newNode = new FunctionNode(new FunctionPoint(point));
+        FunctionNode newNode = newNode(newX, point.getY());
         newNode.next = current;
         newNode.prev = current.prev;
         current.prev.next = newNode;
         current.prev = newNode;
+        pointsHash ^= FunctionPoint.hashCode(newX, point.getY());
 
         pointsCount++;
+        structureChanged();
+    }
+
+    // Добавление точек в любом порядке: они сортируются один раз и вставляются за один проход по списку,
+    // совпадения X разрешаются по правилу policy. При REJECT и совпадении список не меняется
+    public void addPoints(double[] xs, double[] ys, MergePolicy policy) throws InappropriateFunctionPointException {
+        double[][] points = TabulatedFunctions.sortedPoints(xs, ys, policy);
+        double[] addedXs = points[0];
+        double[] addedYs = points[1];
+        if (addedXs.length == 0)
+            return;
+
+        // При REJECT все совпадения проверяются до первого изменения
+        if (policy == MergePolicy.REJECT) {
+            FunctionNode current = head.next;
+            for (double x : addedXs) {
+                while (current != head && current.x + EPS <= x)
+                    current = current.next;
+                if (current != head && Math.abs(current.x - x) < EPS)
+                    throw new InappropriateFunctionPointException("Point with same X already exists");
+            }
+        }
+
+        // Добавляемые точки упорядочены и различаются больше чем на EPS, поэтому обход списка не возвращается назад
+        FunctionNode current = head.next;
+        int inserted = 0;
+        for (int i = 0; i < addedXs.length; i++) {
+            double x = addedXs[i];
+            while (current != head && current.x + EPS <= x)
+                current = current.next;
+            if (current != head && Math.abs(current.x - x) < EPS) {
+                if (policy == MergePolicy.OVERWRITE)
+                    changeY(current, addedYs[i]);
+                continue;
+            }
+            FunctionNode newNode = newNode(x, addedYs[i]);
+            newNode.next = current;
+            newNode.prev = current.prev;
+            current.prev.next = newNode;
+            current.prev = newNode;
+            pointsHash ^= FunctionPoint.hashCode(x, addedYs[i]);
+            inserted++;
+        }
+
+        if (inserted > 0) {
+            pointsCount += inserted;
+            structureChanged();
+            if (pointsCount >= 2)
+                detectUniformGrid();
+            else
+                uniform = false;
+        }
     }
 
     public String toString() {
@@ -245,7 +634,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
                 throw new IllegalStateException("Corrupted list state: list ended unexpectedly.");
             }
 
-            sb.append(current.point.toString());
+            sb.append(new FunctionPoint(current.x, current.y).toString());
 
             if (i < pointsCount - 1) {
                 sb.append(", ");
@@ -275,8 +664,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             FunctionNode currentThat = thatList.head.next;
 
             for (int i = 0; i < pointsCount; i++) {
-                // Используем FunctionPoint.equals() для сравнения координат
-                if (!currentThis.point.equals(currentThat.point)) {
+                // Сравниваем координаты с учетом EPS, как в FunctionPoint.equals()
+                if (Math.abs(currentThis.x - currentThat.x) >= EPS || Math.abs(currentThis.y - currentThat.y) >= EPS) {
                     return false;
                 }
                 currentThis = currentThis.next;
@@ -285,38 +674,16 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             return true;
         }
 
-        // Если это ArrayTabulatedFunction
+        // Другие реализации: обе функции проходятся последовательно за один проход
         else {
-            // Используем публичные методы getPointX/Y (менее эффективно, но универсально)
-            for (int i = 0; i < pointsCount; i++) {
-                double x1 = this.getPointX(i);
-                double y1 = this.getPointY(i);
-                double x2 = that.getPointX(i);
-                double y2 = that.getPointY(i);
-
-                // Сравниваем координаты с учетом EPS
-                if (Math.abs(x1 - x2) >= EPS || Math.abs(y1 - y2) >= EPS) {
-                    return false;
-                }
-            }
-            return true;
+            return TabulatedFunctions.pointsEqual(this, that);
         }
     }
 
 
+    //Хэш-коды всех точек, объединённые через XOR, и количество точек; XOR точек поддерживается при изменениях
     public int hashCode() {
-        int result = pointsCount;
-
-        FunctionNode current = head.next;
-
-        // Обходим список и последовательно объединяем хэш-коды всех точек через XOR
-        for (int i = 0; i < pointsCount; i++) {
-            // points[i].hashCode() вызывает переопределенный метод из FunctionPoint
-            result ^= current.point.hashCode();
-            current = current.next;
-        }
-
-        return result;
+        return pointsCount ^ pointsHash;
     }
 
 
@@ -326,10 +693,15 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             //Поверхностное клонирование
             LinkedListTabulatedFunction clone = (LinkedListTabulatedFunction) super.clone();
 
-            clone.head = new FunctionNode(null);
+            clone.head = new FunctionNode(0, 0);
             clone.head.next = clone.head;
             clone.head.prev = clone.head;
             clone.pointsCount = 0;
+            clone.pointsHash = 0;
+            clone.sampledIndex = null;
+            clone.lastAccessed = null;
+            clone.freeNodes = null;
+            clone.freeNodesCount = 0;
 
             if (this.pointsCount == 0) {
                 return clone;
@@ -339,10 +711,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
             for (int i = 0; i < this.pointsCount; i++) {
 
-                // Глубокое клонирование точки
-                FunctionPoint clonedPoint = (FunctionPoint) currentOriginal.point.clone();
-
-                clone.addNodeToTail(clonedPoint);
+                // Глубокое клонирование: новые узлы с теми же координатами
+                clone.addNodeToTail(currentOriginal.x, currentOriginal.y);
 
                 currentOriginal = currentOriginal.next;
             }
@@ -353,7 +723,63 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
     }
 
-}
+    //Компактная сериализация в том же виде, что и у ArrayTabulatedFunction: версия формата, количество точек, массивы X и Y.
+    //Граф узлов не записывается, поэтому размер не зависит от ссылок prev/next, а длинный список не переполняет стек
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        int i = 0;
+        for (FunctionNode node = head.next; node != head; node = node.next, i++) {
+            xs[i] = node.x;
+            ys[i] = node.y;
+        }
+        out.defaultWriteObject();
+        out.writeByte(SERIAL_FORMAT);
+        out.writeInt(pointsCount);
+        out.writeUnshared(xs);
+        out.writeUnshared(ys);
+    }
 
+    //Читает компактный формат, а также прежний, в котором сериализовался сам граф узлов
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        head = new FunctionNode(0, 0);
+        head.next = head;
+        head.prev = head;
+        pointsCount = 0;
 
+        if (fields.getObjectStreamClass().getField("head") != null) {
+            FunctionNode legacyHead = (FunctionNode) fields.get("head", null);
+            if (legacyHead == null) {
+                throw new InvalidObjectException("Corrupted tabulated function data");
+            }
+            for (FunctionNode node = legacyHead.next; node != legacyHead; node = node.next) {
+                addNodeToTail(node.x, node.y);
+            }
+        } else {
+            int format = in.readByte();
+            if (format != SERIAL_FORMAT) {
+                throw new InvalidObjectException("Unsupported serialized format version " + format + " (expected " + SERIAL_FORMAT + ")");
+            }
+            int count = in.readInt();
+            double[] xs = TabulatedFunctions.readCoordinates(in);
+            double[] ys = TabulatedFunctions.readCoordinates(in);
+            if (xs.length != count || ys.length != count) {
+                throw new InvalidObjectException("Corrupted tabulated function data");
+            }
+            for (int i = 0; i < count; i++) {
+                addNodeToTail(xs[i], ys[i]);
+            }
+        }
 
+        if (pointsCount < 2) {
+            throw new InvalidObjectException("At least two points required");
+        }
+        for (FunctionNode node = head.next.next; node != head; node = node.next) {
+            if (node.x <= node.prev.x + EPS) {
+                throw new InvalidObjectException("Points must be strictly increasing by X");
+            }
+        }
+        detectUniformGrid();
+    }
+}
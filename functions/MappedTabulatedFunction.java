@@ -0,0 +1,328 @@
+package functions;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Табулированная функция только для чтения, точки которой читаются прямо из отображённого в память файла.
+//Файл не копируется в кучу: страницы подгружаются операционной системой по мере обращения к точкам.
+//
+//Формат файла (все числа little-endian):
+//  int    MAGIC ("TABF")
+//  int    VERSION
+//  int    количество точек
+//  int    флаги (бит 0 - точки лежат на равномерной сетке)
+//  double левая граница
+//  double правая граница
+//  далее пары (x, y) для каждой точки
+public class MappedTabulatedFunction implements TabulatedFunction, Serializable {
+
+    private static final double EPS = 1e-9;
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAGIC = 0x46424154; // байты 'T', 'A', 'B', 'F'
+    public static final int VERSION = 1;
+    public static final int FLAG_UNIFORM = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int POINT_SIZE = 16;
+
+    // Файл отображается частями: один MappedByteBuffer не может быть больше 2 ГБ
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_POINTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_POINTS - 1;
+    // Размер буфера при записи файла
+    private static final int WRITE_BUFFER_POINTS = 4096;
+    // Допустимое относительное (к шагу) отклонение X от узла равномерной сетки
+    private static final double UNIFORM_TOLERANCE = 1e-6;
+
+    private final transient ByteBuffer[] chunks;
+    private final int pointsCount;
+    private final boolean uniform;
+    private final double leftX;
+    private final double rightX;
+    private final double gridStep;
+
+    //Отображает файл в память и проверяет его заголовок
+    public MappedTabulatedFunction(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("File is too short for a tabulated function header: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a tabulated function file: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported tabulated function file version " + version + " (expected " + VERSION + ")");
+            }
+            this.pointsCount = header.getInt(8);
+            this.uniform = (header.getInt(12) & FLAG_UNIFORM) != 0;
+            this.leftX = header.getDouble(16);
+            this.rightX = header.getDouble(24);
+
+            if (pointsCount < 2) {
+                throw new IOException("At least two points required, file contains " + pointsCount);
+            }
+            if (size != HEADER_SIZE + (long) pointsCount * POINT_SIZE) {
+                throw new IOException("File size " + size + " does not match points count " + pointsCount);
+            }
+            if (!(leftX < rightX)) {
+                throw new IOException("Invalid domain borders in header: [" + leftX + ", " + rightX + "]");
+            }
+            this.gridStep = (rightX - leftX) / (pointsCount - 1);
+
+            int chunkCount = (int) (((long) pointsCount + CHUNK_POINTS - 1) >>> CHUNK_SHIFT);
+            this.chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long first = (long) i << CHUNK_SHIFT;
+                long points = Math.min(CHUNK_POINTS, pointsCount - first);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * POINT_SIZE, points * POINT_SIZE);
+                chunks[i] = chunk.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            // Границы из заголовка используются при вычислении значений, поэтому сверяются с первой и последней точкой
+            if (x(0) != leftX || x(pointsCount - 1) != rightX) {
+                throw new IOException("Domain borders in header do not match the first and last points: " + path);
+            }
+        }
+    }
+
+    //Записывает табулированную функцию в файл в формате, пригодном для отображения в память.
+    //Точки проходятся один раз через TabulatedFunctions.forEachPoint, поэтому у ConcurrentTabulatedFunction
+    //записывается согласованный снимок, а списки и деревья обходятся последовательно, без поиска по индексу
+    public static void write(TabulatedFunction function, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            PointWriter writer = new PointWriter(channel);
+            TabulatedFunctions.forEachPoint(function, writer);
+            ByteBuffer buffer = writer.buffer;
+            writeFully(channel, buffer);
+
+            // Заголовок записывается в конце, когда известны количество точек, границы и равномерность сетки
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(writer.count).putInt(writer.isUniform() ? FLAG_UNIFORM : 0)
+                    .putDouble(writer.firstX).putDouble(writer.lastX);
+            channel.position(0);
+            writeFully(channel, buffer);
+        }
+    }
+
+    // Записывает точки в канал через буфер и собирает данные для заголовка.
+    // Сетка равномерна, если |x(i) - (x(0) + i * step)| <= step * UNIFORM_TOLERANCE для всех i при step = (x(n-1) - x(0)) / (n - 1).
+    // Для точки i это условие - отрезок допустимых step: [(x(i) - x(0)) / (i + tol), (x(i) - x(0)) / (i - tol)],
+    // поэтому по ходу записи хранится только пересечение этих отрезков, а step проверяется в конце
+    private static final class PointWriter implements TabulatedFunctions.PointConsumer {
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_POINTS * POINT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int count;
+        double firstX;
+        double lastX;
+        double minStep = 0;
+        double maxStep = Double.POSITIVE_INFINITY;
+
+        PointWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        public void accept(double x, double y) throws IOException {
+            if (count == 0) {
+                firstX = x;
+            } else {
+                double offset = x - firstX;
+                minStep = Math.max(minStep, offset / (count + UNIFORM_TOLERANCE));
+                maxStep = Math.min(maxStep, offset / (count - UNIFORM_TOLERANCE));
+            }
+            lastX = x;
+            count++;
+            buffer.putDouble(x).putDouble(y);
+            if (!buffer.hasRemaining()) {
+                writeFully(channel, buffer);
+            }
+        }
+
+        boolean isUniform() {
+            double step = (lastX - firstX) / (count - 1);
+            return step >= minStep && step <= maxStep;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private double x(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE);
+    }
+
+    private double y(int index) {
+        return chunks[index >>> CHUNK_SHIFT].getDouble((index & CHUNK_MASK) * POINT_SIZE + 8);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+    }
+
+    //Признак равномерной сетки из заголовка файла
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    public double getLeftDomainBorder() {
+        return leftX;
+    }
+
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    //Значение функции в точке x: те же правила EPS для границ и узлов, что и у ArrayTabulatedFunction
+    public double getFunctionValue(double x) {
+        if (x < leftX || x > rightX || Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        if (Math.abs(x - leftX) < EPS)
+            return y(0);
+        if (Math.abs(x - rightX) < EPS)
+            return y(pointsCount - 1);
+
+        int i = findSegment(x);
+        double x1 = x(i);
+        double x2 = x(i + 1);
+
+        if (x - x1 < EPS) return y(i);
+        if (x2 - x < EPS) return y(i + 1);
+
+        double y1 = y(i);
+        double y2 = y(i + 1);
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    //Индекс i левого конца отрезка, для которого x(i) <= x < x(i+1)
+    private int findSegment(double x) {
+        if (uniform) {
+            // На равномерной сетке индекс вычисляется напрямую, коррекция нужна лишь из-за погрешности округления
+            int i = (int) ((x - leftX) / gridStep);
+            if (i > pointsCount - 2) i = pointsCount - 2;
+            if (i < 0) i = 0;
+            while (i > 0 && x(i) > x) i--;
+            while (i < pointsCount - 2 && x(i + 1) <= x) i++;
+            return i;
+        }
+
+        int low = 0;
+        int high = pointsCount - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    public double getPointY(int index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    //Файл отображён только для чтения, поэтому все изменяющие методы запрещены
+    public void setPoint(int index, FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    public void setPointX(int index, double x) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    public void setPointY(int index, double y) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    public void deletePoint(int index) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw new UnsupportedOperationException("Mapped tabulated function is read-only");
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (int i = 0; i < pointsCount; i++) {
+            sb.append(new FunctionPoint(x(i), y(i)));
+            if (i < pointsCount - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction that = (TabulatedFunction) o;
+        if (pointsCount != that.getPointsCount()) return false;
+
+        // Обе функции проходятся последовательно за один проход (списочная - курсором)
+        return TabulatedFunctions.pointsEqual(this, that);
+    }
+
+    public int hashCode() {
+        int result = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            result ^= FunctionPoint.hashCode(x(i), y(i));
+        }
+        return result;
+    }
+
+    //Содержимое неизменяемо, поэтому копия разделяет отображённый файл с исходным объектом
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    //Отображение в память не сериализуется: вместо него сериализуется копия точек в ArrayTabulatedFunction
+    private Object writeReplace() {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = x(i);
+            ys[i] = y(i);
+        }
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+}
@@ -0,0 +1,11 @@
+package functions;
+
+//Правило для точек, X которых совпадает (в пределах EPS) с X уже существующей точки или другой добавляемой точки
+public enum MergePolicy {
+    // Бросить InappropriateFunctionPointException, не изменяя функцию
+    REJECT,
+    // Оставить существующую точку (из совпадающих добавляемых - раньше переданную)
+    KEEP_EXISTING,
+    // Заменить Y существующей точки значением добавляемой (из совпадающих добавляемых - позже переданной)
+    OVERWRITE
+}
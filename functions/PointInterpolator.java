@@ -0,0 +1,95 @@
+package functions;
+
+import java.io.IOException;
+
+//Вычисление значений по источнику точек без его сохранения: в памяти держится только текущий отрезок.
+//Аргументы должны идти в неубывающем порядке, источник при этом читается не больше одного раза.
+//Правила те же, что у табулированных функций: вне [первый X, последний X] - NaN, в пределах EPS от узла - значение в узле
+public final class PointInterpolator {
+
+    private static final double EPS = 1e-9;
+
+    private final PointSource source;
+
+    // Текущий отрезок [x1, x2]; (x2, y2) - последняя прочитанная точка
+    private double x1;
+    private double y1;
+    private double x2;
+    private double y2;
+    // Сколько концов отрезка уже прочитано (0, 1 или 2)
+    private int loaded;
+    private boolean exhausted;
+    private double lastArgument = Double.NEGATIVE_INFINITY;
+
+    public PointInterpolator(PointSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source is null");
+        }
+        this.source = source;
+    }
+
+    //Абсцисса первой точки источника или NaN, если источник пуст
+    public double getLeftDomainBorder() throws IOException {
+        if (loaded == 0 && !advance()) {
+            return Double.NaN;
+        }
+        return loaded == 1 ? x2 : x1;
+    }
+
+    //Значение в точке x; x не может быть меньше аргумента предыдущего вызова
+    public double getFunctionValue(double x) throws IOException {
+        if (Double.isNaN(x)) {
+            return Double.NaN;
+        }
+        if (x < lastArgument) {
+            throw new IllegalArgumentException("Arguments must be non-decreasing: " + x + " after " + lastArgument);
+        }
+        lastArgument = x;
+
+        if (loaded == 0 && !advance()) {
+            return Double.NaN;
+        }
+        while (x2 <= x && advance()) {
+            // Переходим к отрезку, содержащему x
+        }
+        if (x2 <= x) {
+            // Источник закончился: x совпадает с последней точкой или лежит правее
+            return x == x2 ? y2 : Double.NaN;
+        }
+        if (loaded == 1) {
+            // x левее первой точки
+            return Double.NaN;
+        }
+
+        if (x - x1 < EPS) return y1;
+        if (x2 - x < EPS) return y2;
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    //Лежит ли x правее последней точки уже закончившегося источника
+    boolean isPastEnd(double x) {
+        return exhausted && x > x2;
+    }
+
+    private boolean advance() throws IOException {
+        if (exhausted) {
+            return false;
+        }
+        if (!source.next()) {
+            exhausted = true;
+            return false;
+        }
+        double x = source.getX();
+        if (loaded > 0 && x <= x2 + EPS) {
+            throw new IllegalArgumentException("Points must be strictly increasing by X: " + x + " after " + x2);
+        }
+        x1 = x2;
+        y1 = y2;
+        x2 = x;
+        y2 = source.getY();
+        if (loaded < 2) {
+            loaded++;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package functions;
+
+import java.io.IOException;
+
+//Последовательный источник точек с возрастающими X: файл, поток показаний датчика, табулированная функция.
+//Точки выдаются по одной, поэтому источник может быть сколь угодно длинным, а его обработка не требует хранить все точки
+public interface PointSource {
+
+    //Переходит к следующей точке; возвращает false, если точки закончились
+    boolean next() throws IOException;
+
+    //Абсцисса текущей точки
+    double getX();
+
+    //Ордината текущей точки
+    double getY();
+}
@@ -0,0 +1,182 @@
+package functions;
+
+import java.io.IOException;
+import java.util.Spliterator;
+
+//Вспомогательные статические методы для потоковой обработки точек: источники из функций и Spliterator,
+//операторы прореживания и передискретизации, вычисление значений и сборка функции из источника.
+//Операторы сами являются источниками и читают исходный источник по мере надобности, не накапливая точки
+public final class PointStreams {
+
+    //Приватный конструктор запрещает создание объектов этого класса
+    private PointStreams() {
+
+    }
+
+    //Источник, выдающий точки табулированной функции по порядку
+    public static PointSource fromFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        TabulatedFunction points = TabulatedFunctions.consistentPoints(function);
+        if (points instanceof LinkedListTabulatedFunction) {
+            // Курсор проходит список за один проход вместо поиска узла по индексу
+            LinkedListTabulatedFunction.Cursor cursor = ((LinkedListTabulatedFunction) points).cursor();
+            return new PointSource() {
+                public boolean next() {
+                    return cursor.next();
+                }
+
+                public double getX() {
+                    return cursor.getX();
+                }
+
+                public double getY() {
+                    return cursor.getY();
+                }
+            };
+        }
+        return new PointSource() {
+            private int index = -1;
+
+            public boolean next() {
+                if (index + 1 >= points.getPointsCount()) {
+                    return false;
+                }
+                index++;
+                return true;
+            }
+
+            public double getX() {
+                return points.getPointX(index);
+            }
+
+            public double getY() {
+                return points.getPointY(index);
+            }
+        };
+    }
+
+    //Источник поверх Spliterator точек (например, Stream<FunctionPoint>.spliterator()), точки читаются по требованию
+    public static PointSource fromSpliterator(Spliterator<? extends FunctionPoint> spliterator) {
+        if (spliterator == null) {
+            throw new IllegalArgumentException("Spliterator is null");
+        }
+        return new PointSource() {
+            private double x;
+            private double y;
+
+            public boolean next() {
+                return spliterator.tryAdvance(point -> {
+                    x = point.getX();
+                    y = point.getY();
+                });
+            }
+
+            public double getX() {
+                return x;
+            }
+
+            public double getY() {
+                return y;
+            }
+        };
+    }
+
+    //Оставляет каждую factor-ю точку источника, начиная с первой
+    public static PointSource decimate(PointSource source, int factor) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source is null");
+        }
+        if (factor < 1) {
+            throw new IllegalArgumentException("Decimation factor must be positive");
+        }
+        return new PointSource() {
+            private boolean started;
+
+            public boolean next() throws IOException {
+                int skip = started ? factor - 1 : 0;
+                for (int i = 0; i < skip; i++) {
+                    if (!source.next()) {
+                        return false;
+                    }
+                }
+                started = true;
+                return source.next();
+            }
+
+            public double getX() {
+                return source.getX();
+            }
+
+            public double getY() {
+                return source.getY();
+            }
+        };
+    }
+
+    //Точки на равномерной сетке leftX + k * step, значения интерполируются по источнику.
+    //Узлы сетки левее первой точки источника пропускаются, последним выдаётся узел не правее последней точки
+    public static PointSource resample(PointSource source, double leftX, double step) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source is null");
+        }
+        if (!(step > 0) || Double.isInfinite(step) || Double.isNaN(leftX) || Double.isInfinite(leftX)) {
+            throw new IllegalArgumentException("Resampling grid must have a finite start and a positive step");
+        }
+        PointInterpolator interpolator = new PointInterpolator(source);
+        return new PointSource() {
+            private long index = -1;
+            private double x;
+            private double y;
+
+            public boolean next() throws IOException {
+                if (index < 0) {
+                    double first = interpolator.getLeftDomainBorder();
+                    if (Double.isNaN(first)) {
+                        return false;
+                    }
+                    // Первый узел сетки не левее первой точки источника
+                    index = first <= leftX ? 0 : (long) Math.ceil((first - leftX) / step);
+                    while (index > 0 && leftX + (index - 1) * step >= first) {
+                        index--;
+                    }
+                    while (leftX + index * step < first) {
+                        index++;
+                    }
+                } else {
+                    index++;
+                }
+                x = leftX + index * step;
+                y = interpolator.getFunctionValue(x);
+                return !interpolator.isPastEnd(x);
+            }
+
+            public double getX() {
+                return x;
+            }
+
+            public double getY() {
+                return y;
+            }
+        };
+    }
+
+    //Значения в точках xs (по неубывающим аргументам), записываемые в out; источник читается один раз
+    public static void interpolate(PointSource source, double[] xs, double[] out) throws IOException {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        PointInterpolator interpolator = new PointInterpolator(source);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = interpolator.getFunctionValue(xs[i]);
+        }
+    }
+
+    //Собирает все оставшиеся точки источника в ArrayTabulatedFunction
+    public static TabulatedFunction toFunction(PointSource source) throws IOException {
+        TabulatedFunctionBuilder builder = new TabulatedFunctionBuilder();
+        builder.addAll(source);
+        return builder.build();
+    }
+}
@@ -0,0 +1,124 @@
+package functions;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+//Потоковое чтение табулированной функции в двоичном формате outputTabulatedFunction:
+//int количество точек и пары (x, y) в порядке big-endian. Точки читаются порциями и выдаются по одной,
+//так что в памяти находится только текущая порция. Из потока читается ровно столько байт, сколько занимает функция.
+public final class TabulatedBinaryReader implements PointSource, Closeable {
+
+    private static final int CHUNK_POINTS = 4096;
+    private static final int POINT_SIZE = 16;
+
+    // Источник байт: заполняет порцию целиком или бросает EOFException
+    private interface ChunkReader {
+        void read(ByteBuffer chunk) throws IOException;
+    }
+
+    private final ChunkReader reader;
+    private final Closeable closeable;
+    private final ByteBuffer buffer;
+
+    private int pointsCount = -1;
+    // Сколько точек ещё не прочитано из потока в буфер
+    private int unread;
+    private double x;
+    private double y;
+
+    public TabulatedBinaryReader(InputStream inputStream) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream is null");
+        }
+        // DataInputStream нужен только ради readFully: он не буферизует и не читает лишнего
+        DataInputStream in = new DataInputStream(inputStream);
+        this.buffer = ByteBuffer.allocate(CHUNK_POINTS * POINT_SIZE);
+        this.closeable = inputStream;
+        this.reader = chunk -> {
+            in.readFully(chunk.array(), chunk.position(), chunk.remaining());
+            chunk.position(chunk.limit());
+        };
+        buffer.limit(0);
+    }
+
+    public TabulatedBinaryReader(ReadableByteChannel channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel is null");
+        }
+        this.buffer = ByteBuffer.allocateDirect(CHUNK_POINTS * POINT_SIZE);
+        this.closeable = channel;
+        this.reader = chunk -> {
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk) < 0) {
+                    throw new EOFException("Unexpected end of tabulated function data");
+                }
+            }
+        };
+        buffer.limit(0);
+    }
+
+    //Количество точек из заголовка (заголовок читается при первом обращении)
+    public int getPointsCount() throws IOException {
+        if (pointsCount < 0) {
+            buffer.clear();
+            buffer.limit(4);
+            reader.read(buffer);
+            int count = buffer.getInt(0);
+            if (count < 0) {
+                throw new IOException("Corrupted tabulated function data: points count " + count);
+            }
+            pointsCount = count;
+            unread = count;
+            buffer.limit(0);
+        }
+        return pointsCount;
+    }
+
+    //Читает следующую точку; возвращает false, если все точки из заголовка уже прочитаны
+    public boolean next() throws IOException {
+        if (!buffer.hasRemaining()) {
+            getPointsCount();
+            if (unread == 0) {
+                return false;
+            }
+            int count = Math.min(CHUNK_POINTS, unread);
+            buffer.clear();
+            buffer.limit(count * POINT_SIZE);
+            reader.read(buffer);
+            buffer.flip();
+            unread -= count;
+        }
+        x = buffer.getDouble();
+        y = buffer.getDouble();
+        return true;
+    }
+
+    //Абсцисса последней прочитанной точки
+    public double getX() {
+        return x;
+    }
+
+    //Ордината последней прочитанной точки
+    public double getY() {
+        return y;
+    }
+
+    //Читает все оставшиеся точки и создаёт по ним ArrayTabulatedFunction
+    public TabulatedFunction readFunction() throws IOException {
+        getPointsCount();
+        int count = unread + buffer.remaining() / POINT_SIZE;
+        // Координаты читаются сразу в массивы, которые затем передаются функции без копирования
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; next(); i++) {
+            xs[i] = x;
+            ys[i] = y;
+        }
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    public void close() throws IOException {
+        closeable.close();
+    }
+}
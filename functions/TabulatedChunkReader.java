@@ -0,0 +1,49 @@
+package functions;
+
+import java.io.IOException;
+
+//Разбивает источник точек на табулированные функции по chunkSize точек.
+//Соседние части имеют общую граничную точку, поэтому интерполяция по частям совпадает с интерполяцией по всему источнику,
+//а в памяти одновременно находится не больше одной части.
+public final class TabulatedChunkReader {
+
+    private final PointSource source;
+    private final int chunkSize;
+    private final TabulatedFunctionBuilder builder;
+
+    // Последняя точка предыдущей части, с которой начинается следующая
+    private boolean hasCarry;
+    private double carryX;
+    private double carryY;
+
+    public TabulatedChunkReader(PointSource source, int chunkSize) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source is null");
+        }
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("Chunk must contain at least two points");
+        }
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.builder = new TabulatedFunctionBuilder(chunkSize);
+    }
+
+    //Следующая часть или null, если новых точек больше нет.
+    //Последняя часть может быть короче chunkSize; одиночная точка в конце источника частью не становится
+    public TabulatedFunction next() throws IOException {
+        if (hasCarry) {
+            builder.add(carryX, carryY);
+        }
+        while (builder.getPointsCount() < chunkSize && source.next()) {
+            builder.add(source.getX(), source.getY());
+        }
+        if (builder.getPointsCount() < 2) {
+            builder.clear();
+            return null;
+        }
+        carryX = builder.getLastX();
+        carryY = builder.getLastY();
+        hasCarry = true;
+        return builder.build();
+    }
+}
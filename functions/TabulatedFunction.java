@@ -30,6 +30,79 @@ public interface TabulatedFunction extends Function, Cloneable {
     // Добавляет новую точку (сохраняя порядок)
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
 
+    // Добавляет несколько точек в любом порядке; при совпадении X бросает исключение, и функция не меняется
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        if (points == null) {
+            throw new IllegalArgumentException("Points array is null");
+        }
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        addPoints(xs, ys, MergePolicy.REJECT);
+    }
+
+    // Добавляет точки (xs[i], ys[i]) в любом порядке; при совпадении X бросает исключение, и функция не меняется
+    default void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        addPoints(xs, ys, MergePolicy.REJECT);
+    }
+
+    // Добавляет точки (xs[i], ys[i]) в любом порядке, совпадения X разрешаются по правилу policy.
+    // Реализация по умолчанию вставляет точки по одной; списочная и массивная функции сливают их за один проход
+    default void addPoints(double[] xs, double[] ys, MergePolicy policy) throws InappropriateFunctionPointException {
+        double[][] points = TabulatedFunctions.sortedPoints(xs, ys, policy);
+        double[] addedXs = points[0];
+        double[] addedYs = points[1];
+        if (policy == MergePolicy.REJECT) {
+            // Все совпадения проверяются до первого изменения
+            for (double x : addedXs) {
+                if (TabulatedFunctions.indexOfX(this, x) >= 0) {
+                    throw new InappropriateFunctionPointException("Point with same X already exists");
+                }
+            }
+        }
+        for (int i = 0; i < addedXs.length; i++) {
+            int index = TabulatedFunctions.indexOfX(this, addedXs[i]);
+            if (index < 0) {
+                addPoint(new FunctionPoint(addedXs[i], addedYs[i]));
+            } else if (policy == MergePolicy.OVERWRITE) {
+                setPointY(index, addedYs[i]);
+            }
+        }
+    }
+
+    // Добавляет все точки функции other, совпадения X разрешаются по правилу policy
+    default void merge(TabulatedFunction other, MergePolicy policy) throws InappropriateFunctionPointException {
+        if (other == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        // Точки ConcurrentTabulatedFunction читаются из её согласованной копии
+        TabulatedFunction points = TabulatedFunctions.consistentPoints(other);
+        int count = points.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = points.getPointX(i);
+            ys[i] = points.getPointY(i);
+        }
+        addPoints(xs, ys, policy);
+    }
+
+    // Неизменяемый снимок текущих точек; его копирование и передача не требуют копирования точек.
+    // Реализация по умолчанию один раз копирует точки в массивы, массивная функция делит со снимком свои массивы
+    default TabulatedFunction freeze() {
+        int count = getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = getPointX(i);
+            ys[i] = getPointY(i);
+        }
+        return new FrozenTabulatedFunction(new ArrayTabulatedFunction(xs, ys));
+    }
+
     Object clone() throws CloneNotSupportedException;
 
 }
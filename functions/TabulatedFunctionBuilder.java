@@ -0,0 +1,96 @@
+package functions;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+//Пошаговое построение табулированной функции из точек, поступающих по одной в порядке возрастания X.
+//Координаты копятся в растущих примитивных массивах; build() передаёт их ArrayTabulatedFunction без копирования
+//и очищает построитель, так что его можно использовать для следующей функции.
+public final class TabulatedFunctionBuilder {
+
+    private static final double EPS = 1e-9;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int initialCapacity;
+    private double[] xs;
+    private double[] ys;
+    private int pointsCount;
+
+    public TabulatedFunctionBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    //Построитель с заранее выделенным местом под capacity точек
+    public TabulatedFunctionBuilder(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be non-negative");
+        }
+        initialCapacity = capacity;
+        xs = new double[capacity];
+        ys = new double[capacity];
+    }
+
+    //Добавляет точку; X должен быть больше X предыдущей точки
+    public void add(double x, double y) {
+        if (Double.isNaN(x)) {
+            throw new IllegalArgumentException("X must not be NaN");
+        }
+        if (pointsCount > 0 && x <= xs[pointsCount - 1] + EPS) {
+            throw new IllegalArgumentException("Points must be strictly increasing by X (index " + pointsCount + ")");
+        }
+        if (pointsCount == xs.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, xs.length * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        xs[pointsCount] = x;
+        ys[pointsCount] = y;
+        pointsCount++;
+    }
+
+    //Добавляет все оставшиеся точки источника
+    public void addAll(PointSource source) throws IOException {
+        while (source.next()) {
+            add(source.getX(), source.getY());
+        }
+    }
+
+    //Количество добавленных точек
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    //Абсцисса последней добавленной точки
+    public double getLastX() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("No points added");
+        }
+        return xs[pointsCount - 1];
+    }
+
+    //Ордината последней добавленной точки
+    public double getLastY() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("No points added");
+        }
+        return ys[pointsCount - 1];
+    }
+
+    //Удаляет все добавленные точки
+    public void clear() {
+        pointsCount = 0;
+    }
+
+    //Создаёт функцию из добавленных точек (нужно не меньше двух) и очищает построитель
+    public TabulatedFunction build() {
+        if (pointsCount < 2) {
+            throw new IllegalStateException("At least two points required, " + pointsCount + " added");
+        }
+        double[] builtXs = xs.length == pointsCount ? xs : Arrays.copyOf(xs, pointsCount);
+        double[] builtYs = ys.length == pointsCount ? ys : Arrays.copyOf(ys, pointsCount);
+        xs = new double[initialCapacity];
+        ys = new double[initialCapacity];
+        pointsCount = 0;
+        return new ArrayTabulatedFunction(builtXs, builtYs);
+    }
+}
@@ -1,5 +1,16 @@
 package functions;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 //Класс, содержащий вспомогательные статические методы для работы с табулированными функциями
 
@@ -14,7 +25,177 @@ public final class TabulatedFunctions {
 
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount) {
 
-        //Проверка на корректность входных параметров
+        checkTabulationBounds(function, leftX, rightX, pointsCount);
+
+        //Табулирование: значения сразу пишутся в примитивные массивы, без создания объекта FunctionPoint на каждую точку
+
+        double[] xs = tabulationGrid(leftX, rightX, pointsCount);
+        double[] ys = new double[pointsCount];
+        function.getFunctionValues(xs, ys);
+
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    //Параллельное табулирование в общем пуле ForkJoinPool с размером порции по умолчанию
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX, int pointsCount) {
+        return tabulate(function, leftX, rightX, pointsCount, ForkJoinPool.commonPool(), DEFAULT_GRAIN_SIZE);
+    }
+
+    //Параллельное табулирование в заданном пуле: отрезок делится пополам, пока в части больше grainSize точек.
+    //Сетка X совпадает с сеткой последовательного tabulate бит в бит, функция должна допускать вызовы из нескольких потоков
+    public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount,
+                                             ForkJoinPool pool, int grainSize) {
+
+        checkTabulationBounds(function, leftX, rightX, pointsCount);
+        if (grainSize < 1) {
+            throw new IllegalArgumentException("Grain size must be positive");
+        }
+
+        double[] xs = tabulationGrid(leftX, rightX, pointsCount);
+        double[] ys = new double[pointsCount];
+        pool.invoke(new TabulationTask(function, xs, ys, 0, pointsCount, grainSize));
+
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    //Размер порции точек для параллельного табулирования по умолчанию
+    public static final int DEFAULT_GRAIN_SIZE = 4096;
+
+    //Задача параллельного табулирования точек с индексами [from, to)
+    private static final class TabulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Function function;
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+        private final int grainSize;
+
+        TabulationTask(Function function, double[] xs, double[] ys, int from, int to, int grainSize) {
+            this.function = function;
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+        }
+
+        protected void compute() {
+            if (to - from <= grainSize) {
+                // Порция вычисляется пакетно через getFunctionValues
+                double[] values = Arrays.copyOfRange(xs, from, to);
+                function.getFunctionValues(values, values);
+                System.arraycopy(values, 0, ys, from, values.length);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TabulationTask(function, xs, ys, from, middle, grainSize),
+                    new TabulationTask(function, xs, ys, middle, to, grainSize));
+        }
+    }
+
+    //Адаптивное табулирование: отрезки с наибольшей погрешностью линейной интерполяции делятся пополам, пока погрешность
+    //в середине каждого отрезка не станет не больше max(absoluteTolerance, relativeTolerance * |f(x)|) или пока число точек
+    //не достигнет maxPointsCount. Точки сгущаются там, где функция сильно искривлена, и разрежены на почти линейных участках
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX,
+                                                     double absoluteTolerance, double relativeTolerance, int maxPointsCount) {
+
+        checkTabulationBounds(function, leftX, rightX, maxPointsCount);
+        if (absoluteTolerance < 0 || relativeTolerance < 0 || Double.isNaN(absoluteTolerance) || Double.isNaN(relativeTolerance)) {
+            throw new IllegalArgumentException("Tolerances must be non-negative");
+        }
+
+        // Начальная равномерная сетка, чтобы не пропустить особенности функции между двумя крайними точками
+        int pointsCount = Math.min(maxPointsCount, ADAPTIVE_INITIAL_SEGMENTS + 1);
+        double[] initialXs = tabulationGrid(leftX, rightX, pointsCount);
+        double[] initialYs = new double[pointsCount];
+        function.getFunctionValues(initialXs, initialYs);
+
+        PriorityQueue<AdaptiveSegment> queue = new PriorityQueue<>();
+        List<AdaptiveSegment> accepted = new ArrayList<>();
+        for (int i = 0; i < pointsCount - 1; i++) {
+            AdaptiveSegment segment = new AdaptiveSegment(function, initialXs[i], initialYs[i], initialXs[i + 1], initialYs[i + 1]);
+            if (segment.isAccurate(absoluteTolerance, relativeTolerance)) {
+                accepted.add(segment);
+            } else {
+                queue.add(segment);
+            }
+        }
+
+        // Делим отрезок с наибольшей погрешностью, пока есть неточные отрезки и не исчерпан бюджет точек
+        while (!queue.isEmpty() && pointsCount < maxPointsCount) {
+            AdaptiveSegment segment = queue.poll();
+            AdaptiveSegment[] halves = {
+                    new AdaptiveSegment(function, segment.x1, segment.y1, segment.xm, segment.ym),
+                    new AdaptiveSegment(function, segment.xm, segment.ym, segment.x2, segment.y2)
+            };
+            pointsCount++;
+            for (AdaptiveSegment half : halves) {
+                if (half.isAccurate(absoluteTolerance, relativeTolerance)) {
+                    accepted.add(half);
+                } else {
+                    queue.add(half);
+                }
+            }
+        }
+        accepted.addAll(queue);
+
+        // Собираем точки в порядке возрастания X
+        accepted.sort(Comparator.comparingDouble(segment -> segment.x1));
+        double[] xs = new double[accepted.size() + 1];
+        double[] ys = new double[accepted.size() + 1];
+        for (int i = 0; i < accepted.size(); i++) {
+            xs[i] = accepted.get(i).x1;
+            ys[i] = accepted.get(i).y1;
+        }
+        AdaptiveSegment last = accepted.get(accepted.size() - 1);
+        xs[xs.length - 1] = last.x2;
+        ys[ys.length - 1] = last.y2;
+
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    //Число отрезков начальной равномерной сетки адаптивного табулирования
+    private static final int ADAPTIVE_INITIAL_SEGMENTS = 8;
+
+    //Отрезок адаптивного табулирования с оценкой погрешности интерполяции в его середине
+    private static final class AdaptiveSegment implements Comparable<AdaptiveSegment> {
+        final double x1, y1, x2, y2;
+        final double xm, ym;
+        final double error;
+
+        AdaptiveSegment(Function function, double x1, double y1, double x2, double y2) {
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+            this.xm = (x1 + x2) / 2;
+            this.ym = function.getFunctionValue(xm);
+
+            // Слишком короткий отрезок делить нельзя: соседние точки должны отличаться по X больше чем на EPS
+            if (x2 - x1 < 4 * EPS) {
+                this.error = 0;
+            } else {
+                double interpolated = (y1 + y2) / 2;
+                double difference = ym == interpolated ? 0 : Math.abs(ym - interpolated);
+                // Неопределённая погрешность (NaN, бесконечности) считается максимальной
+                this.error = Double.isNaN(difference) ? Double.POSITIVE_INFINITY : difference;
+            }
+        }
+
+        boolean isAccurate(double absoluteTolerance, double relativeTolerance) {
+            return !Double.isInfinite(error) && error <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(ym));
+        }
+
+        //Отрезки с большей погрешностью идут в очереди первыми
+        public int compareTo(AdaptiveSegment other) {
+            return Double.compare(other.error, error);
+        }
+    }
+
+    //Проверка на корректность параметров табулирования
+    private static void checkTabulationBounds(Function function, double leftX, double rightX, int pointsCount) {
 
         if (leftX >= rightX - EPS) {
             throw new IllegalArgumentException("Left border must be less than right border");
@@ -39,113 +220,301 @@ public final class TabulatedFunctions {
         if (rightX > domainRight && Math.abs(rightX - domainRight) > EPS) {
             throw new IllegalArgumentException("The right tabulation boundary (' + rightX + ') extends beyond the function's domain (' + domainRight + ').");
         }
+    }
 
-        //Табулирование
-
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+    //Равномерная сетка X для табулирования
+    private static double[] tabulationGrid(double leftX, double rightX, int pointsCount) {
+        double[] xs = new double[pointsCount];
         double step = (rightX - leftX) / (pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-
-            // Если мы достигли последней точки, принудительно устанавливаем x = rightX, чтобы избежать накопления погрешности
-            if (i == pointsCount - 1) {
-                x = rightX;
-            }
-
-            double y = function.getFunctionValue(x);
-            points[i] = new FunctionPoint(x, y);
+            xs[i] = leftX + i * step;
         }
 
-        return new ArrayTabulatedFunction(points);
+        // Последняя точка принудительно равна rightX, чтобы избежать накопления погрешности
+        xs[pointsCount - 1] = rightX;
+        return xs;
     }
 
-    // Выводит табулированную функцию в байтовый поток
-    public static void outputTabulatedFunction(TabulatedFunction function, OutputStream outputStream) throws IOException {
-
-        // DataOutputStream позволяет удобно записывать примитивные типы данных (int, double)
-        DataOutputStream out = new DataOutputStream(outputStream);
+    // Размер порции при двоичном вводе-выводе, в точках
+    private static final int BINARY_CHUNK_POINTS = 4096;
+    private static final int BINARY_POINT_SIZE = 16;
 
-        // Записываем количество точек
-        out.writeInt(function.getPointsCount());
-
-        // Записываем пары (x, y)
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            out.writeDouble(function.getPointX(i));
-            out.writeDouble(function.getPointY(i));
-        }
+    // Получатель заполненной порции байт при двоичном выводе
+    private interface ChunkWriter {
+        void write(ByteBuffer chunk) throws IOException;
     }
 
-    // Считывает табулированную функцию из байтового потока, создает и настраивает её объект, и возвращает его из метода
-    public static TabulatedFunction inputTabulatedFunction(InputStream inputStream) throws IOException {
+    // Выводит табулированную функцию в байтовый поток.
+    // Формат прежний, как у DataOutputStream: int количество точек и пары (x, y) в порядке big-endian
+    public static void outputTabulatedFunction(TabulatedFunction function, OutputStream outputStream) throws IOException {
+        // Порции пишутся в поток целиком, вместо двух вызовов writeDouble на каждую точку
+        writeBinary(function, ByteBuffer.allocate(BINARY_CHUNK_POINTS * BINARY_POINT_SIZE),
+                chunk -> outputStream.write(chunk.array(), 0, chunk.limit()));
+    }
 
-        // DataInputStream позволяет считывать примитивные типы данных
-        DataInputStream in = new DataInputStream(inputStream);
+    // Выводит табулированную функцию в канал (например, FileChannel) в том же формате, что и в байтовый поток
+    public static void outputTabulatedFunction(TabulatedFunction function, WritableByteChannel channel) throws IOException {
+        writeBinary(function, ByteBuffer.allocateDirect(BINARY_CHUNK_POINTS * BINARY_POINT_SIZE), chunk -> {
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        });
+    }
 
-        // Считываем количество точек
-        int pointsCount = in.readInt();
+    private static void writeBinary(TabulatedFunction function, ByteBuffer buffer, ChunkWriter writer) throws IOException {
+        // Количество и точки берутся из одного состояния, иначе заголовок может не совпасть с числом записанных точек
+        TabulatedFunction points = consistentPoints(function);
+        buffer.putInt(points.getPointsCount());
+        forEachPoint(points, (x, y) -> {
+            if (buffer.remaining() < BINARY_POINT_SIZE) {
+                buffer.flip();
+                writer.write(buffer);
+                buffer.clear();
+            }
+            buffer.putDouble(x).putDouble(y);
+        });
+        buffer.flip();
+        writer.write(buffer);
+    }
 
-        // Создаем массив для точек
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+    // Получатель точек при последовательном обходе функции
+    interface PointConsumer {
+        void accept(double x, double y) throws IOException;
+    }
 
-        // Считываем пары (x, y)
-        for (int i = 0; i < pointsCount; i++) {
-            double x = in.readDouble();
-            double y = in.readDouble();
-            points[i] = new FunctionPoint(x, y);
+    // Функция, точки которой можно читать по одной: у ConcurrentTabulatedFunction берётся согласованная копия,
+    // чтобы одновременные изменения не попали в середину обхода
+    static TabulatedFunction consistentPoints(TabulatedFunction function) {
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return ((ConcurrentTabulatedFunction) function).snapshot();
         }
-
-        // Возвращаем табулированную функцию
-        return new ArrayTabulatedFunction(points);
+        return function;
     }
 
+    // Обходит точки функции по порядку самым быстрым для её реализации способом
+    static void forEachPoint(TabulatedFunction function, PointConsumer consumer) throws IOException {
+        function = consistentPoints(function);
+        if (function instanceof FrozenTabulatedFunction) {
+            function = ((FrozenTabulatedFunction) function).points();
+        }
+        if (function instanceof ArrayTabulatedFunction) {
+            // Прямой доступ к массивам без вызовов интерфейса на каждую координату
+            ArrayTabulatedFunction array = (ArrayTabulatedFunction) function;
+            double[] xs = array.xValues();
+            double[] ys = array.yValues();
+            int pointsCount = array.getPointsCount();
+            for (int i = 0; i < pointsCount; i++) {
+                consumer.accept(xs[i], ys[i]);
+            }
+        } else if (function instanceof LinkedListTabulatedFunction) {
+            // Последовательный обход курсором вместо поиска узла по индексу для каждой координаты
+            LinkedListTabulatedFunction.Cursor cursor = ((LinkedListTabulatedFunction) function).cursor();
+            while (cursor.next()) {
+                consumer.accept(cursor.getX(), cursor.getY());
+            }
+        } else if (function instanceof TreeTabulatedFunction) {
+            // Проход по связанным листьям дерева без спуска от корня для каждой точки
+            ((TreeTabulatedFunction) function).forEachPoint(consumer);
+        } else if (function instanceof UnrolledLinkedListTabulatedFunction) {
+            ((UnrolledLinkedListTabulatedFunction) function).forEachPoint(consumer);
+        } else {
+            int pointsCount = function.getPointsCount();
+            for (int i = 0; i < pointsCount; i++) {
+                consumer.accept(function.getPointX(i), function.getPointY(i));
+            }
+        }
+    }
 
-    // Записывает табулированную функцию в символьный поток
-    public static void writeTabulatedFunction(TabulatedFunction function, Writer writer) {
-
-        // PrintWriter позволяет удобно записывать текст с форматированием
-        PrintWriter out = new PrintWriter(writer);
-
-        // Записываем количество точек
-        out.println(function.getPointsCount());
+    // Копии координат, упорядоченные по X; точки, совпадающие по X в пределах EPS, сводятся к одной по правилу policy:
+    // X берётся у раньше переданной точки, Y - у раньше (KEEP_EXISTING) или позже (OVERWRITE) переданной
+    static double[][] sortedPoints(double[] xs, double[] ys, MergePolicy policy) throws InappropriateFunctionPointException {
+        if (xs == null || ys == null) {
+            throw new IllegalArgumentException("Coordinates array is null");
+        }
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Arrays of X and Y must have the same length");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Merge policy is null");
+        }
+        double[] sortedXs = xs.clone();
+        double[] sortedYs = ys.clone();
+        boolean sorted = true;
+        for (int i = 0; i < xs.length; i++) {
+            if (Double.isNaN(xs[i])) {
+                throw new IllegalArgumentException("X must not be NaN (index " + i + ")");
+            }
+            if (i > 0 && xs[i] < xs[i - 1]) {
+                sorted = false;
+            }
+        }
+        // Исходные номера точек после сортировки; для уже упорядоченных массивов они совпадают с позициями
+        int[] order = null;
+        if (!sorted) {
+            order = new int[xs.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            sortByX(sortedXs, sortedYs, order);
+        }
 
-        // Записываем пары (x, y)
-        for (int i = 0; i < function.getPointsCount(); i++) {
-            // Записываем X и Y через пробел.
-            out.println(function.getPointX(i) + " " + function.getPointY(i));
+        int count = 0;
+        // Наименьший и наибольший исходные номера точек, сведённых в последнюю оставленную
+        int firstIndex = 0;
+        int lastIndex = 0;
+        for (int i = 0; i < sortedXs.length; i++) {
+            int index = order == null ? i : order[i];
+            if (count > 0 && sortedXs[i] - sortedXs[count - 1] < EPS) {
+                if (policy == MergePolicy.REJECT) {
+                    throw new InappropriateFunctionPointException("Point with same X already exists");
+                }
+                if (index < firstIndex) {
+                    firstIndex = index;
+                    sortedXs[count - 1] = sortedXs[i];
+                    if (policy == MergePolicy.KEEP_EXISTING) {
+                        sortedYs[count - 1] = sortedYs[i];
+                    }
+                }
+                if (index > lastIndex) {
+                    lastIndex = index;
+                    if (policy == MergePolicy.OVERWRITE) {
+                        sortedYs[count - 1] = sortedYs[i];
+                    }
+                }
+                continue;
+            }
+            sortedXs[count] = sortedXs[i];
+            sortedYs[count] = sortedYs[i];
+            firstIndex = index;
+            lastIndex = index;
+            count++;
+        }
+        if (count < sortedXs.length) {
+            sortedXs = Arrays.copyOf(sortedXs, count);
+            sortedYs = Arrays.copyOf(sortedYs, count);
         }
-        out.flush(); // Сброс буфера для PrintWriter
+        return new double[][] {sortedXs, sortedYs};
     }
 
-    // Считывает табулированную функцию из символьного потока, создает и настраивает её объект, возвращает его из метода
-    public static TabulatedFunction readTabulatedFunction(Reader reader) throws IOException {
-        // StreamTokenizer - класс для парсинга числовых данных из потока
-        StreamTokenizer tokenizer = new StreamTokenizer(reader);
-        tokenizer.parseNumbers(); // Настраиваем токенизатор на чтение чисел
+    // Устойчивая сортировка слиянием точек (xs[i], ys[i]) и их номеров order[i] по X
+    private static void sortByX(double[] xs, double[] ys, int[] order) {
+        int n = xs.length;
+        double[] srcXs = xs;
+        double[] srcYs = ys;
+        int[] srcOrder = order;
+        double[] dstXs = new double[n];
+        double[] dstYs = new double[n];
+        int[] dstOrder = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + 2 * width, n);
+                int i = low;
+                int j = mid;
+                for (int k = low; k < high; k++) {
+                    int from = j >= high || (i < mid && srcXs[i] <= srcXs[j]) ? i++ : j++;
+                    dstXs[k] = srcXs[from];
+                    dstYs[k] = srcYs[from];
+                    dstOrder[k] = srcOrder[from];
+                }
+            }
+            double[] swap = srcXs;
+            srcXs = dstXs;
+            dstXs = swap;
+            swap = srcYs;
+            srcYs = dstYs;
+            dstYs = swap;
+            int[] swapOrder = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = swapOrder;
+        }
+        if (srcXs != xs) {
+            System.arraycopy(srcXs, 0, xs, 0, n);
+            System.arraycopy(srcYs, 0, ys, 0, n);
+            System.arraycopy(srcOrder, 0, order, 0, n);
+        }
+    }
 
-        // Считываем количество точек, первый токен должен быть количеством точек
-        tokenizer.nextToken();
-        int pointsCount = (int) tokenizer.nval;
+    // Индекс точки функции, X которой совпадает с x в пределах EPS, или -1; поиск двоичный по getPointX
+    static int indexOfX(TabulatedFunction function, double x) {
+        int low = 0;
+        int high = function.getPointsCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midX = function.getPointX(mid);
+            if (Math.abs(midX - x) < EPS) {
+                return mid;
+            }
+            if (midX < x) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
 
-        // Массив для точек
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+    // Поточечное сравнение двух функций с точностью EPS: каждая проходится по порядку один раз
+    // (списочная - курсором, а не поиском узла по индексу), сравнение прекращается на первом различии
+    static boolean pointsEqual(TabulatedFunction a, TabulatedFunction b) {
+        // Количество и точки берутся из одного состояния функции
+        a = consistentPoints(a);
+        b = consistentPoints(b);
+        if (a.getPointsCount() != b.getPointsCount()) {
+            return false;
+        }
+        PointSource left = PointStreams.fromFunction(a);
+        PointSource right = PointStreams.fromFunction(b);
+        try {
+            while (left.next() && right.next()) {
+                if (Math.abs(left.getX() - right.getX()) >= EPS || Math.abs(left.getY() - right.getY()) >= EPS) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            // Источники поверх функций в памяти не выполняют ввода-вывода
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
 
-        //  Считываем пары (x, y)
-        for (int i = 0; i < pointsCount; i++) {
+    // Массив координат из компактного формата сериализации; объект другого типа означает повреждённые данные
+    static double[] readCoordinates(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Object array = in.readUnshared();
+        if (!(array instanceof double[])) {
+            throw new InvalidObjectException("Corrupted tabulated function data");
+        }
+        return (double[]) array;
+    }
 
-            // Считываем X
-            tokenizer.nextToken();
-            double x = tokenizer.nval;
+    // Считывает табулированную функцию из байтового потока, создает и настраивает её объект, и возвращает его из метода.
+    // Из потока читается ровно столько байт, сколько занимает функция, поэтому за ней в потоке могут идти другие данные
+    public static TabulatedFunction inputTabulatedFunction(InputStream inputStream) throws IOException {
+        return new TabulatedBinaryReader(inputStream).readFunction();
+    }
 
-            // Считываем Y
-            tokenizer.nextToken();
-            double y = tokenizer.nval;
+    // Считывает табулированную функцию из канала (например, FileChannel)
+    public static TabulatedFunction inputTabulatedFunction(ReadableByteChannel channel) throws IOException {
+        return new TabulatedBinaryReader(channel).readFunction();
+    }
 
-            points[i] = new FunctionPoint(x, y);
+    // Записывает табулированную функцию в символьный поток: количество точек, затем по строке "x y" на точку.
+    // Ошибки записи, как и раньше, не объявляются в сигнатуре, а передаются как UncheckedIOException
+    public static void writeTabulatedFunction(TabulatedFunction function, Writer writer) {
+        TabulatedTextWriter out = new TabulatedTextWriter(writer);
+        try {
+            out.writeFunction(function);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        // Возвращаем табулированную функцию
-        return new ArrayTabulatedFunction(points);
+    // Считывает табулированную функцию из символьного потока, создает и настраивает её объект, возвращает его из метода.
+    // Понимает экспоненциальную запись чисел и восстанавливает значения, записанные writeTabulatedFunction, без потери точности
+    public static TabulatedFunction readTabulatedFunction(Reader reader) throws IOException {
+        return new TabulatedTextReader(reader).readFunction();
     }
 
     //Сериализует (сохраняет) табулированную функцию в байтовый поток
@@ -165,4 +534,14 @@ public final class TabulatedFunctions {
             return (TabulatedFunction) in.readObject();
         }
     }
-}
\ No newline at end of file
+
+    //Записывает табулированную функцию в файл формата MappedTabulatedFunction (заголовок и упакованные little-endian точки)
+    public static void writeMappedTabulatedFunction(TabulatedFunction function, Path path) throws IOException {
+        MappedTabulatedFunction.write(function, path);
+    }
+
+    //Отображает файл в память и возвращает функцию только для чтения, вычисляемую прямо по отображённым данным
+    public static MappedTabulatedFunction mapTabulatedFunction(Path path) throws IOException {
+        return new MappedTabulatedFunction(path);
+    }
+}
@@ -0,0 +1,335 @@
+package functions;
+
+import java.io.*;
+import java.math.BigInteger;
+
+//Потоковое чтение табулированной функции в текстовом формате: количество точек, затем пары "x y".
+//Числа разделяются пробельными символами, запятыми или точками с запятой, поэтому читаются и выгрузки в стиле CSV.
+//Точки можно читать по одной (getPointsCount, next, getX, getY), не загружая весь файл в память,
+//или сразу получить функцию методом readFunction.
+public final class TabulatedTextReader implements PointSource, Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Точные степени десяти: при мантиссе не больше 2^53 одно умножение или деление на них даёт правильно округлённый результат
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    // Мантисса копится, пока следующая цифра не может переполнить long (до 19 значащих цифр)
+    private static final long MANTISSA_LIMIT = Long.MAX_VALUE / 10;
+
+    // Усечённые до 128 бит степени пятёрки 5^q для алгоритма Эйзеля-Лемира: пары (старшие, младшие 64 бита)
+    private static final int SMALLEST_POWER_OF_FIVE = -342;
+    private static final int LARGEST_POWER_OF_FIVE = 308;
+    private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+    private final Reader reader;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    // Границы последнего прочитанного числа в буфере
+    private int tokenStart;
+    private int tokenEnd;
+
+    private int pointsCount = -1;
+    private int remaining;
+    private double x;
+    private double y;
+
+    public TabulatedTextReader(Reader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader is null");
+        }
+        this.reader = reader;
+    }
+
+    //Количество точек из заголовка (заголовок читается при первом обращении)
+    public int getPointsCount() throws IOException {
+        if (pointsCount < 0) {
+            if (!nextToken()) {
+                throw new EOFException("Missing points count");
+            }
+            double count = parseToken();
+            if (count < 0 || count != (int) count) {
+                throw new IOException("Invalid points count: " + new String(buffer, tokenStart, tokenEnd - tokenStart));
+            }
+            pointsCount = (int) count;
+            remaining = pointsCount;
+        }
+        return pointsCount;
+    }
+
+    //Читает следующую точку; возвращает false, если все точки из заголовка уже прочитаны
+    public boolean next() throws IOException {
+        getPointsCount();
+        if (remaining == 0) {
+            return false;
+        }
+        x = readNumber();
+        y = readNumber();
+        remaining--;
+        return true;
+    }
+
+    //Абсцисса последней прочитанной точки
+    public double getX() {
+        return x;
+    }
+
+    //Ордината последней прочитанной точки
+    public double getY() {
+        return y;
+    }
+
+    //Читает все оставшиеся точки и создаёт по ним ArrayTabulatedFunction
+    public TabulatedFunction readFunction() throws IOException {
+        getPointsCount();
+        double[] xs = new double[remaining];
+        double[] ys = new double[remaining];
+        for (int i = 0; next(); i++) {
+            xs[i] = x;
+            ys[i] = y;
+        }
+        return new ArrayTabulatedFunction(xs, ys);
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private double readNumber() throws IOException {
+        if (!nextToken()) {
+            throw new EOFException("Unexpected end of data: " + remaining + " of " + pointsCount + " points are missing");
+        }
+        return parseToken();
+    }
+
+    private double parseToken() throws IOException {
+        try {
+            return parseDouble(buffer, tokenStart, tokenEnd);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed number: " + new String(buffer, tokenStart, tokenEnd - tokenStart), e);
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c <= ' ' || c == ',' || c == ';';
+    }
+
+    // Находит следующее число и запоминает его границы; false, если данные закончились
+    private boolean nextToken() throws IOException {
+        while (true) {
+            while (position < limit && isSeparator(buffer[position])) {
+                position++;
+            }
+            if (position < limit) {
+                break;
+            }
+            if (eof) {
+                return false;
+            }
+            int read = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            eof = read < 0;
+        }
+
+        tokenStart = position;
+        while (true) {
+            while (position < limit && !isSeparator(buffer[position])) {
+                position++;
+            }
+            if (position < limit || eof) {
+                break;
+            }
+            // Число дошло до конца буфера: переносим его начало в начало буфера и дочитываем
+            int length = limit - tokenStart;
+            if (length == buffer.length) {
+                char[] larger = new char[buffer.length * 2];
+                System.arraycopy(buffer, tokenStart, larger, 0, length);
+                buffer = larger;
+            } else {
+                System.arraycopy(buffer, tokenStart, buffer, 0, length);
+            }
+            tokenStart = 0;
+            position = length;
+            limit = length;
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+        tokenEnd = position;
+        return true;
+    }
+
+    //Разбирает десятичное число из chars[start, end) с правильным округлением, как Double.parseDouble.
+    //Если мантисса точно представима в double, а десятичный порядок по модулю не больше 22, хватает одного точного
+    //умножения или деления (алгоритм Клингера). Остальные числа до 19 значащих цифр разбираются алгоритмом Эйзеля-Лемира.
+    //Более длинные числа, NaN, Infinity, редкие неоднозначные случаи и некорректные строки передаются в Double.parseDouble
+    static double parseDouble(char[] chars, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean exact = true;
+
+        int integerStart = i;
+        for (; i < end && chars[i] >= '0' && chars[i] <= '9'; i++) {
+            if (mantissa < MANTISSA_LIMIT) {
+                mantissa = mantissa * 10 + (chars[i] - '0');
+            } else {
+                exact = false;
+            }
+        }
+        digits += i - integerStart;
+
+        if (i < end && chars[i] == '.') {
+            i++;
+            int fractionStart = i;
+            for (; i < end && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                if (mantissa < MANTISSA_LIMIT) {
+                    mantissa = mantissa * 10 + (chars[i] - '0');
+                    exponent--;
+                } else if (chars[i] != '0') {
+                    exact = false;
+                }
+            }
+            digits += i - fractionStart;
+        }
+
+        if (digits > 0 && i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int value = 0;
+            for (; i < end && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                if (value < 100_000) {
+                    value = value * 10 + (chars[i] - '0');
+                }
+            }
+            if (i == exponentStart) {
+                exact = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (exact && digits > 0 && i == end) {
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            if (mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+                return negative ? -value : value;
+            }
+            double value = eiselLemire(mantissa, exponent);
+            if (!Double.isNaN(value)) {
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+
+    //Правильно округлённое значение w * 10^q для 0 < w < 2^63 или NaN, если быстрого ответа нет.
+    //Произведение w на 128-битное приближение 5^q даёт старшие биты результата, порядок двойки считается отдельно
+    private static double eiselLemire(long w, int q) {
+        if (q < SMALLEST_POWER_OF_FIVE || q > LARGEST_POWER_OF_FIVE) {
+            return Double.NaN;
+        }
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+
+        int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+        if ((high & 0x1FF) == 0x1FF) {
+            // Старших 64 бит приближения не хватило, уточняем по младшим
+            long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == -1L && (q < -27 || q > 55)) {
+            return Double.NaN;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long significand = high >>> (upperBit + 9);
+        int power2 = ((217706 * q) >> 16) + 63 + upperBit - leadingZeros + 1023;
+
+        if (power2 <= 0) {
+            // Денормализованное число
+            if (-power2 + 1 >= 64) {
+                return 0.0;
+            }
+            significand >>>= -power2 + 1;
+            significand += significand & 1;
+            significand >>>= 1;
+            power2 = significand < (1L << 52) ? 0 : 1;
+            return Double.longBitsToDouble(significand | ((long) power2 << 52));
+        }
+
+        // Ровно посередине между двумя double: округление к чётному
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (significand & 3) == 1
+                && (significand << (upperBit + 9)) == high) {
+            significand &= ~1L;
+        }
+        significand += significand & 1;
+        significand >>>= 1;
+        if (significand >= (2L << 52)) {
+            significand = 1L << 52;
+            power2++;
+        }
+        significand &= ~(1L << 52);
+        if (power2 >= 0x7FF) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.longBitsToDouble(significand | ((long) power2 << 52));
+    }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    //Таблица строится один раз при загрузке класса: 5^q, нормализованные так, что старший из 128 бит равен единице
+    private static long[] powersOfFive() {
+        long[] table = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+        BigInteger five = BigInteger.valueOf(5);
+        for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++) {
+            BigInteger value;
+            if (q < 0) {
+                // Приближение 1 / 5^-q с избытком
+                BigInteger power = five.pow(-q);
+                int bits = power.bitLength();
+                int shift = q >= -27 ? bits + 127 : 2 * bits + 128;
+                value = BigInteger.ONE.shiftLeft(shift).divide(power).add(BigInteger.ONE);
+            } else {
+                value = five.pow(q);
+            }
+            int shift = value.bitLength() - 128;
+            value = shift > 0 ? value.shiftRight(shift) : value.shiftLeft(-shift);
+
+            int index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+            table[index] = value.shiftRight(64).longValue();
+            table[index + 1] = value.longValue();
+        }
+        return table;
+    }
+}
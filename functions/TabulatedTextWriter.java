@@ -0,0 +1,273 @@
+package functions;
+
+import java.io.*;
+import java.math.BigInteger;
+
+//Потоковая запись табулированной функции в текстовом формате: количество точек, затем по строке "x y" на точку.
+//Символы копятся в собственном буфере и передаются во Writer порциями, без промежуточных строк на каждую точку.
+//Числа записываются в формате Double.toString, но всегда самой короткой десятичной записью, которая при обратном чтении
+//даёт в точности то же значение (алгоритм Schubfach). Double.toString в JDK 17 иногда выдаёт лишнюю цифру.
+public final class TabulatedTextWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+    // Самая длинная запись double в формате Double.toString ("-2.2250738585072014E-308") короче этого значения
+    private static final int MAX_NUMBER_LENGTH = 32;
+
+    // Параметры double для алгоритма Schubfach: наименьший порядок, неявная единица мантиссы
+    // и граница, ниже которой денормализованные мантиссы умножаются на 10 для точности
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << 52;
+    private static final long C_TINY = 3;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    // 126-битные приближения 10^-k с избытком для k из [K_MIN, K_MAX]: пары (старшие 63 бита, младшие 63 бита)
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+
+    private final Writer writer;
+    private final char[] lineSeparator = System.lineSeparator().toCharArray();
+    private final char[] buffer = new char[BUFFER_SIZE];
+    // Цифры мантиссы при форматировании числа, от младшей к старшей с конца массива
+    private final char[] digits = new char[19];
+    private int position;
+
+    public TabulatedTextWriter(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Writer is null");
+        }
+        this.writer = writer;
+    }
+
+    //Записывает заголовок с количеством точек
+    public void writePointsCount(int pointsCount) throws IOException {
+        ensureCapacity(MAX_NUMBER_LENGTH + lineSeparator.length);
+        append(Integer.toString(pointsCount));
+        newLine();
+    }
+
+    //Записывает одну точку
+    public void writePoint(double x, double y) throws IOException {
+        ensureCapacity(2 * MAX_NUMBER_LENGTH + 1 + lineSeparator.length);
+        appendDouble(x);
+        buffer[position++] = ' ';
+        appendDouble(y);
+        newLine();
+    }
+
+    //Записывает функцию целиком: заголовок и все точки
+    public void writeFunction(TabulatedFunction function) throws IOException {
+        // Заголовок и точки - из одного состояния функции
+        TabulatedFunction points = TabulatedFunctions.consistentPoints(function);
+        writePointsCount(points.getPointsCount());
+        TabulatedFunctions.forEachPoint(points, this::writePoint);
+    }
+
+    public void flush() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+        writer.flush();
+    }
+
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void append(String text) {
+        text.getChars(0, text.length(), buffer, position);
+        position += text.length();
+    }
+
+    private void newLine() {
+        for (char c : lineSeparator) {
+            buffer[position++] = c;
+        }
+    }
+
+    private void appendDouble(double v) {
+        long bits = Double.doubleToRawLongBits(v);
+        long fraction = bits & (C_MIN - 1);
+        int biasedExponent = (int) (bits >>> 52) & 0x7FF;
+        if (biasedExponent == 0x7FF || (biasedExponent == 0 && fraction == 0)) {
+            // NaN, бесконечности и нули
+            append(Double.toString(v));
+            return;
+        }
+        if (bits < 0) {
+            buffer[position++] = '-';
+        }
+        if (biasedExponent != 0) {
+            int q = biasedExponent - 1075;
+            long c = C_MIN | fraction;
+            // Целые числа записываются как есть
+            if (q < 0 && q > -53) {
+                long integer = c >> -q;
+                if (integer << -q == c) {
+                    appendDecimal(integer, 0);
+                    return;
+                }
+            }
+            shortestDecimal(q, c, 0);
+        } else if (fraction < C_TINY) {
+            shortestDecimal(Q_MIN, 10 * fraction, -1);
+        } else {
+            shortestDecimal(Q_MIN, fraction, 0);
+        }
+    }
+
+    //Кратчайшее десятичное число из интервала округления c * 2^q (R. Giulietti, "The Schubfach way to render doubles")
+    private void shortestDecimal(int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // На границе порядка нижний соседний double вдвое ближе
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        int index = 2 * (k - K_MIN);
+        long g1 = POWERS_OF_TEN[index];
+        long g0 = POWERS_OF_TEN[index + 1];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Сначала пробуем на одну цифру короче: s' = floor(s / 10)
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(uin ? s : t, k + dk);
+            return;
+        }
+        // В интервал попали оба кандидата: берём ближайший, при равенстве - чётный
+        long cmp = vb - (s + t << 1);
+        appendDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+    }
+
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    //Записывает f * 10^e (f > 0) в формате Double.toString: обычная запись для 10^-3 <= |v| < 10^7, иначе "d.dddEn"
+    private void appendDecimal(long f, int e) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = 0;
+        for (long rest = f; rest != 0; rest /= 10) {
+            digits[digits.length - 1 - length++] = (char) ('0' + rest % 10);
+        }
+        int first = digits.length - length;
+        // Порядок старшей цифры: v = 0.d1d2... * 10^point
+        int point = length + e;
+
+        if (point > 0 && point <= 7) {
+            if (length <= point) {
+                appendDigits(first, length);
+                for (int i = length; i < point; i++) {
+                    buffer[position++] = '0';
+                }
+                buffer[position++] = '.';
+                buffer[position++] = '0';
+            } else {
+                appendDigits(first, point);
+                buffer[position++] = '.';
+                appendDigits(first + point, length - point);
+            }
+        } else if (point > -3 && point <= 0) {
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+            for (int i = point; i < 0; i++) {
+                buffer[position++] = '0';
+            }
+            appendDigits(first, length);
+        } else {
+            buffer[position++] = digits[first];
+            buffer[position++] = '.';
+            if (length > 1) {
+                appendDigits(first + 1, length - 1);
+            } else {
+                buffer[position++] = '0';
+            }
+            buffer[position++] = 'E';
+            append(Integer.toString(point - 1));
+        }
+    }
+
+    private void appendDigits(int from, int count) {
+        System.arraycopy(digits, from, buffer, position, count);
+        position += count;
+    }
+
+    //Таблица строится один раз при загрузке класса: g = floor(10^-k * 2^-r) + 1, где 2^125 <= g < 2^126
+    private static long[] powersOfTen() {
+        long[] table = new long[2 * (K_MAX - K_MIN + 1)];
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                int shift = power.bitLength() - 126;
+                g = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + power.bitLength()).divide(power);
+            }
+            g = g.add(BigInteger.ONE);
+
+            int index = 2 * (k - K_MIN);
+            table[index] = g.shiftRight(63).longValue();
+            table[index + 1] = g.longValue() & MASK_63;
+        }
+        return table;
+    }
+}
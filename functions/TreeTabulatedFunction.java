@@ -0,0 +1,736 @@
+package functions;
+import java.io.*;
+
+//Табулированная функция на B+-дереве. Точки хранятся в листьях по CAPACITY штук в примитивных массивах,
+//листья связаны в список по возрастанию X. Внутренние узлы знают число точек в каждом поддереве (по нему ищется точка
+//по индексу) и наименьший X каждого поддерева (по нему ищется отрезок для x).
+//Доступ по индексу, добавление, удаление и изменение точки, вычисление значения стоят O(log n)
+public class TreeTabulatedFunction implements TabulatedFunction, Serializable {
+
+    private static final double EPS = 1e-9;
+    private static final long serialVersionUID = 1L;
+    // Версия компактного формата сериализации, записываемая в начале данных объекта
+    private static final byte SERIAL_FORMAT = 1;
+    // Наибольшее число точек в листе и детей во внутреннем узле
+    private static final int CAPACITY = 64;
+    // Узел (кроме корня), в котором осталось меньше MIN_FILL элементов, сливается с соседом или забирает часть его элементов
+    private static final int MIN_FILL = CAPACITY / 4;
+    // Заполнение узлов при построении дерева из готовых точек: оставляет место для вставок без немедленного деления
+    private static final int BUILD_FILL = CAPACITY * 3 / 4;
+
+    // Узел дерева: count - число элементов в узле (точек в листе или детей во внутреннем узле), size - число точек в поддереве
+    private abstract static class Node {
+        int count;
+        int size;
+
+        abstract double firstX();
+    }
+
+    private static final class Leaf extends Node {
+        final double[] xs = new double[CAPACITY];
+        final double[] ys = new double[CAPACITY];
+        Leaf prev;
+        Leaf next;
+
+        double firstX() {
+            return xs[0];
+        }
+    }
+
+    // Лист вместе с индексом его первой точки. Объект неизменяем и заменяется целиком одной записью ссылки,
+    // поэтому читатели из разных потоков не могут получить лист от одной пары, а индекс от другой
+    private static final class LeafAt {
+        final Leaf leaf;
+        final int start;
+
+        LeafAt(Leaf leaf, int start) {
+            this.leaf = leaf;
+            this.start = start;
+        }
+    }
+
+    private static final class Inner extends Node {
+        final Node[] children = new Node[CAPACITY];
+        // Наименьший X каждого поддерева
+        final double[] firstXs = new double[CAPACITY];
+
+        double firstX() {
+            return firstXs[0];
+        }
+    }
+
+    // Дерево не сериализуется по умолчанию: writeObject записывает только количество точек и их координаты
+    private transient Node root;
+    private transient Leaf firstLeaf;
+    private transient Leaf lastLeaf;
+
+    // Последний лист, найденный по индексу, и индекс его первой точки: последовательный доступ getPointX(i), getPointX(i + 1), ...
+    // стоит O(1) на шаг. Сбрасывается при добавлении и удалении точек
+    private transient LeafAt cachedLeaf;
+
+    // XOR хэш-кодов всех точек: поддерживается при каждом изменении, поэтому hashCode() вычисляется за O(1)
+    private transient int pointsHash;
+
+    //Конструктор, создающий табулированную функцию с равномерными интервалами по X. Значения функции по умолчанию равны 0.
+    public TreeTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        if (leftX >= rightX - EPS) {
+            throw new IllegalArgumentException("Left border must be less than right border");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("At least two points required");
+        }
+        build(uniformGrid(leftX, rightX, pointsCount), new double[pointsCount], pointsCount);
+    }
+
+    // Создаёт табулированную функцию с заданными значениями, X распределяются равномерно между leftX и rightX.
+    public TreeTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX - EPS) {
+            throw new IllegalArgumentException("Left border must be less than right border");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("At least two points required");
+        }
+        build(uniformGrid(leftX, rightX, values.length), values, values.length);
+    }
+
+    //Конструктор, получающий сразу все точки функции в виде массива объектов типа FunctionPoint
+    public TreeTabulatedFunction(FunctionPoint[] points) {
+        if (points == null) {
+            throw new IllegalArgumentException("Points array is null");
+        }
+        if (points.length < 2) {
+            throw new IllegalArgumentException("At least two points required");
+        }
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        xs[0] = points[0].getX();
+        ys[0] = points[0].getY();
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i - 1].getX() + EPS) { //  строгое возрастание
+                throw new IllegalArgumentException("Points must be strictly increasing by X (index " + i + ")");
+            }
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        build(xs, ys, points.length);
+    }
+
+    private static double[] uniformGrid(double leftX, double rightX, int pointsCount) {
+        double[] xs = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs[i] = leftX + i * step;
+        }
+        return xs;
+    }
+
+    // Строит дерево снизу вверх из упорядоченных точек: элементы делятся между узлами поровну, по BUILD_FILL в среднем
+    private void build(double[] xs, double[] ys, int count) {
+        pointsHash = 0;
+        for (int i = 0; i < count; i++) {
+            pointsHash ^= FunctionPoint.hashCode(xs[i], ys[i]);
+        }
+        int leafCount = (count + BUILD_FILL - 1) / BUILD_FILL;
+        Node[] level = new Node[leafCount];
+        Leaf previous = null;
+        for (int j = 0; j < leafCount; j++) {
+            int from = (int) ((long) count * j / leafCount);
+            int to = (int) ((long) count * (j + 1) / leafCount);
+            Leaf leaf = new Leaf();
+            System.arraycopy(xs, from, leaf.xs, 0, to - from);
+            System.arraycopy(ys, from, leaf.ys, 0, to - from);
+            leaf.count = to - from;
+            leaf.size = to - from;
+            leaf.prev = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[j] = leaf;
+        }
+        firstLeaf = (Leaf) level[0];
+        lastLeaf = previous;
+
+        while (level.length > 1) {
+            int innerCount = (level.length + BUILD_FILL - 1) / BUILD_FILL;
+            Node[] upper = new Node[innerCount];
+            for (int j = 0; j < innerCount; j++) {
+                int from = (int) ((long) level.length * j / innerCount);
+                int to = (int) ((long) level.length * (j + 1) / innerCount);
+                Inner inner = new Inner();
+                for (int k = from; k < to; k++) {
+                    inner.children[k - from] = level[k];
+                    inner.firstXs[k - from] = level[k].firstX();
+                    inner.size += level[k].size;
+                }
+                inner.count = to - from;
+                upper[j] = inner;
+            }
+            level = upper;
+        }
+        root = level[0];
+        cachedLeaf = null;
+    }
+
+    //Возвращает значение левой границы области определения функции.
+    public double getLeftDomainBorder() {
+        return firstLeaf.xs[0];
+    }
+
+    //Возвращает значение правой границы области определения функции.
+    public double getRightDomainBorder() {
+        return lastLeaf.xs[lastLeaf.count - 1];
+    }
+
+    //Возвращает значение функции в точке x.
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder() || Double.isNaN(x)) {
+            return Double.NaN;
+        }
+
+        // Проверка крайних точек
+        if (Math.abs(x - getLeftDomainBorder()) < EPS)
+            return firstLeaf.ys[0];
+
+        if (Math.abs(x - getRightDomainBorder()) < EPS)
+            return lastLeaf.ys[lastLeaf.count - 1];
+
+        // Спуск по наименьшим X поддеревьев к листу, содержащему левый конец отрезка [x1, x2]
+        Leaf leaf = leafForX(x);
+        int i = lastNotGreater(leaf.xs, leaf.count, x);
+        double x1 = leaf.xs[i];
+        double y1 = leaf.ys[i];
+        double x2;
+        double y2;
+        if (i < leaf.count - 1) {
+            x2 = leaf.xs[i + 1];
+            y2 = leaf.ys[i + 1];
+        } else {
+            // Правый конец отрезка - первая точка следующего листа (x левее правой границы, поэтому лист существует)
+            x2 = leaf.next.xs[0];
+            y2 = leaf.next.ys[0];
+        }
+
+        if (x - x1 < EPS) return y1;
+        if (x2 - x < EPS) return y2;
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    // Лист, в котором лежит наибольшая точка с X не больше x (самый левый лист, если таких нет)
+    private Leaf leafForX(double x) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[Math.max(0, lastNotGreater(inner.firstXs, inner.count, x))];
+        }
+        return (Leaf) node;
+    }
+
+    // Индекс последнего элемента values[0..count), не превосходящего x, или -1
+    private static int lastNotGreater(double[] values, int count, double x) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    //Возвращает количество точек табулированной функции.
+    public int getPointsCount() {
+        return root.size;
+    }
+
+    // Лист, содержащий точку с индексом index, и индекс первой точки этого листа
+    private LeafAt leafAt(int index) {
+        if (index < 0 || index >= root.size) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+        }
+        // Ссылка читается один раз: лист и его индекс берутся из одного объекта, даже если другой поток его заменяет
+        LeafAt cached = cachedLeaf;
+        if (cached != null) {
+            Leaf leaf = cached.leaf;
+            int start = cached.start;
+            if (index >= start && index < start + leaf.count) {
+                return cached;
+            }
+            // Соседние листья проверяются до спуска от корня: так обходятся точки подряд в обе стороны
+            if (index >= start + leaf.count && leaf.next != null && index < start + leaf.count + leaf.next.count) {
+                cached = new LeafAt(leaf.next, start + leaf.count);
+                cachedLeaf = cached;
+                return cached;
+            }
+            if (index < start && leaf.prev != null && index >= start - leaf.prev.count) {
+                cached = new LeafAt(leaf.prev, start - leaf.prev.count);
+                cachedLeaf = cached;
+                return cached;
+            }
+        }
+
+        Node node = root;
+        int start = 0;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int i = 0;
+            while (index - start >= inner.children[i].size) {
+                start += inner.children[i].size;
+                i++;
+            }
+            node = inner.children[i];
+        }
+        cached = new LeafAt((Leaf) node, start);
+        cachedLeaf = cached;
+        return cached;
+    }
+
+    //Возвращает копию точки с указанным индексом.
+    public FunctionPoint getPoint(int index) {
+        LeafAt at = leafAt(index);
+        return new FunctionPoint(at.leaf.xs[index - at.start], at.leaf.ys[index - at.start]);
+    }
+
+    //Заменяет точку по индексу на переданную.
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        setPointX(index, point.getX());
+        setPointY(index, point.getY());
+    }
+
+    //Возвращает X точки с указанным индексом.
+    public double getPointX(int index) {
+        LeafAt at = leafAt(index);
+        return at.leaf.xs[index - at.start];
+    }
+
+    //Изменяет абсциссу точки с указанным индексом.
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        LeafAt at = leafAt(index);
+        Leaf leaf = at.leaf;
+        int i = index - at.start;
+
+        // Соседние точки могут лежать в соседних листьях; у крайних точек функции соответствующая проверка пропускается
+        boolean hasPrevious = i > 0 || leaf.prev != null;
+        double previousX = i > 0 ? leaf.xs[i - 1] : (leaf.prev != null ? leaf.prev.xs[leaf.prev.count - 1] : 0);
+        boolean hasNext = i < leaf.count - 1 || leaf.next != null;
+        double nextX = i < leaf.count - 1 ? leaf.xs[i + 1] : (leaf.next != null ? leaf.next.xs[0] : 0);
+        if ((hasPrevious && x <= previousX + EPS) || (hasNext && x >= nextX - EPS)) {
+            throw new InappropriateFunctionPointException("New X breaks order of points");
+        }
+
+        pointsHash ^= FunctionPoint.hashCode(leaf.xs[i], leaf.ys[i]) ^ FunctionPoint.hashCode(x, leaf.ys[i]);
+        leaf.xs[i] = x;
+        if (i == 0) {
+            // Изменился наименьший X листа: обновляем его во внутренних узлах на пути к листу
+            updateFirstX(root, index);
+        }
+    }
+
+    private static void updateFirstX(Node node, int index) {
+        if (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int i = 0;
+            while (index >= inner.children[i].size) {
+                index -= inner.children[i].size;
+                i++;
+            }
+            updateFirstX(inner.children[i], index);
+            inner.firstXs[i] = inner.children[i].firstX();
+        }
+    }
+
+    //Возвращает ординату точки с указанным индексом.
+    public double getPointY(int index) {
+        LeafAt at = leafAt(index);
+        return at.leaf.ys[index - at.start];
+    }
+
+    //Устанавливает новое значение ординаты точки с указанным индексом.
+    public void setPointY(int index, double y) {
+        LeafAt at = leafAt(index);
+        Leaf leaf = at.leaf;
+        int i = index - at.start;
+        pointsHash ^= FunctionPoint.hashCode(leaf.xs[i], leaf.ys[i]) ^ FunctionPoint.hashCode(leaf.xs[i], y);
+        leaf.ys[i] = y;
+    }
+
+    //Удаляет точку табулированной функции по индексу.
+    public void deletePoint(int index) {
+        if (root.size < 3) {
+            throw new IllegalStateException("Cannot delete: function must have at least 3 points");
+        }
+        if (index < 0 || index >= root.size) {
+            throw new FunctionPointIndexOutOfBoundsException("Index out of range: " + index);
+        }
+        LeafAt at = leafAt(index);
+        pointsHash ^= FunctionPoint.hashCode(at.leaf.xs[index - at.start], at.leaf.ys[index - at.start]);
+        delete(root, index);
+        // Корень с единственным ребёнком заменяется этим ребёнком, высота дерева уменьшается
+        while (root instanceof Inner && root.count == 1) {
+            root = ((Inner) root).children[0];
+        }
+        cachedLeaf = null;
+    }
+
+    private void delete(Node node, int index) {
+        node.size--;
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            System.arraycopy(leaf.xs, index + 1, leaf.xs, index, leaf.count - index - 1);
+            System.arraycopy(leaf.ys, index + 1, leaf.ys, index, leaf.count - index - 1);
+            leaf.count--;
+            return;
+        }
+        Inner inner = (Inner) node;
+        int i = 0;
+        while (index >= inner.children[i].size) {
+            index -= inner.children[i].size;
+            i++;
+        }
+        Node child = inner.children[i];
+        delete(child, index);
+        if (child.count < MIN_FILL) {
+            rebalance(inner, i);
+        } else {
+            inner.firstXs[i] = child.firstX();
+        }
+    }
+
+    // Ребёнок i узла parent недозаполнен: сливаем его с соседом, если они помещаются в один узел, иначе делим элементы поровну
+    private void rebalance(Inner parent, int i) {
+        int left = i > 0 ? i - 1 : i;
+        int right = left + 1;
+        if (right >= parent.count) {
+            // Единственный ребёнок бывает только у корня, он заменяется ребёнком в deletePoint
+            if (parent.children[left].count > 0) {
+                parent.firstXs[left] = parent.children[left].firstX();
+            }
+            return;
+        }
+        Node leftNode = parent.children[left];
+        Node rightNode = parent.children[right];
+        if (leftNode.count + rightNode.count <= CAPACITY) {
+            if (leftNode instanceof Leaf) {
+                mergeLeaves((Leaf) leftNode, (Leaf) rightNode);
+            } else {
+                mergeInners((Inner) leftNode, (Inner) rightNode);
+            }
+            System.arraycopy(parent.children, right + 1, parent.children, right, parent.count - right - 1);
+            System.arraycopy(parent.firstXs, right + 1, parent.firstXs, right, parent.count - right - 1);
+            parent.count--;
+            parent.children[parent.count] = null;
+        } else {
+            int moved = (leftNode.count - rightNode.count) / 2;
+            if (leftNode instanceof Leaf) {
+                shiftLeaves((Leaf) leftNode, (Leaf) rightNode, moved);
+            } else {
+                shiftInners((Inner) leftNode, (Inner) rightNode, moved);
+            }
+            parent.firstXs[right] = rightNode.firstX();
+        }
+        parent.firstXs[left] = leftNode.firstX();
+    }
+
+    private void mergeLeaves(Leaf left, Leaf right) {
+        System.arraycopy(right.xs, 0, left.xs, left.count, right.count);
+        System.arraycopy(right.ys, 0, left.ys, left.count, right.count);
+        left.count += right.count;
+        left.size = left.count;
+        left.next = right.next;
+        if (right.next != null) {
+            right.next.prev = left;
+        } else {
+            lastLeaf = left;
+        }
+    }
+
+    private static void mergeInners(Inner left, Inner right) {
+        System.arraycopy(right.children, 0, left.children, left.count, right.count);
+        System.arraycopy(right.firstXs, 0, left.firstXs, left.count, right.count);
+        left.count += right.count;
+        left.size += right.size;
+    }
+
+    // Переносит moved точек из конца левого листа в начало правого (при moved < 0 - -moved точек в обратную сторону)
+    private static void shiftLeaves(Leaf left, Leaf right, int moved) {
+        if (moved > 0) {
+            System.arraycopy(right.xs, 0, right.xs, moved, right.count);
+            System.arraycopy(right.ys, 0, right.ys, moved, right.count);
+            System.arraycopy(left.xs, left.count - moved, right.xs, 0, moved);
+            System.arraycopy(left.ys, left.count - moved, right.ys, 0, moved);
+        } else {
+            moved = -moved;
+            System.arraycopy(right.xs, 0, left.xs, left.count, moved);
+            System.arraycopy(right.ys, 0, left.ys, left.count, moved);
+            System.arraycopy(right.xs, moved, right.xs, 0, right.count - moved);
+            System.arraycopy(right.ys, moved, right.ys, 0, right.count - moved);
+            moved = -moved;
+        }
+        left.count -= moved;
+        right.count += moved;
+        left.size = left.count;
+        right.size = right.count;
+    }
+
+    // То же для внутренних узлов: переносятся дети вместе с их наименьшими X и числом точек
+    private static void shiftInners(Inner left, Inner right, int moved) {
+        if (moved > 0) {
+            System.arraycopy(right.children, 0, right.children, moved, right.count);
+            System.arraycopy(right.firstXs, 0, right.firstXs, moved, right.count);
+            System.arraycopy(left.children, left.count - moved, right.children, 0, moved);
+            System.arraycopy(left.firstXs, left.count - moved, right.firstXs, 0, moved);
+            int points = 0;
+            for (int k = 0; k < moved; k++) {
+                points += right.children[k].size;
+                left.children[left.count - moved + k] = null;
+            }
+            left.size -= points;
+            right.size += points;
+        } else {
+            moved = -moved;
+            System.arraycopy(right.children, 0, left.children, left.count, moved);
+            System.arraycopy(right.firstXs, 0, left.firstXs, left.count, moved);
+            System.arraycopy(right.children, moved, right.children, 0, right.count - moved);
+            System.arraycopy(right.firstXs, moved, right.firstXs, 0, right.count - moved);
+            int points = 0;
+            for (int k = 0; k < moved; k++) {
+                points += left.children[left.count + k].size;
+                right.children[right.count - moved + k] = null;
+            }
+            left.size += points;
+            right.size -= points;
+            moved = -moved;
+        }
+        left.count -= moved;
+        right.count += moved;
+    }
+
+    //Добавляет новую точку, сохраняя порядок по X.
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+
+        // Точка с тем же X может быть только среди соседей места вставки: в найденном листе или первой в следующем
+        Leaf leaf = leafForX(newX);
+        int i = lastNotGreater(leaf.xs, leaf.count, newX);
+        if ((i >= 0 && Math.abs(leaf.xs[i] - newX) < EPS)
+                || (i + 1 < leaf.count && Math.abs(leaf.xs[i + 1] - newX) < EPS)
+                || (i + 1 == leaf.count && leaf.next != null && Math.abs(leaf.next.xs[0] - newX) < EPS)) {
+            throw new InappropriateFunctionPointException("Point with same X already exists");
+        }
+
+        Node split = insert(root, newX, point.getY());
+        pointsHash ^= FunctionPoint.hashCode(newX, point.getY());
+        if (split != null) {
+            // Корень разделился: дерево становится на уровень выше
+            Inner newRoot = new Inner();
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.firstXs[0] = root.firstX();
+            newRoot.firstXs[1] = split.firstX();
+            newRoot.count = 2;
+            newRoot.size = root.size + split.size;
+            root = newRoot;
+        }
+        cachedLeaf = null;
+    }
+
+    // Вставляет точку в поддерево; если узел переполнился и разделился, возвращает новый правый узел
+    private Node insert(Node node, double x, double y) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            Leaf right = null;
+            if (leaf.count == CAPACITY) {
+                right = splitLeaf(leaf);
+                if (x >= right.xs[0]) {
+                    leaf = right;
+                }
+            }
+            int i = lastNotGreater(leaf.xs, leaf.count, x) + 1;
+            System.arraycopy(leaf.xs, i, leaf.xs, i + 1, leaf.count - i);
+            System.arraycopy(leaf.ys, i, leaf.ys, i + 1, leaf.count - i);
+            leaf.xs[i] = x;
+            leaf.ys[i] = y;
+            leaf.count++;
+            leaf.size++;
+            return right;
+        }
+
+        Inner inner = (Inner) node;
+        int i = Math.max(0, lastNotGreater(inner.firstXs, inner.count, x));
+        Node child = inner.children[i];
+        Node childSplit = insert(child, x, y);
+        inner.size++;
+        inner.firstXs[i] = child.firstX();
+        if (childSplit == null) {
+            return null;
+        }
+
+        Inner target = inner;
+        Inner right = null;
+        if (inner.count == CAPACITY) {
+            right = splitInner(inner);
+            if (i >= inner.count) {
+                target = right;
+                i -= inner.count;
+            }
+        }
+        System.arraycopy(target.children, i + 1, target.children, i + 2, target.count - i - 1);
+        System.arraycopy(target.firstXs, i + 1, target.firstXs, i + 2, target.count - i - 1);
+        target.children[i + 1] = childSplit;
+        target.firstXs[i + 1] = childSplit.firstX();
+        target.count++;
+        // Новый узел получил часть точек ребёнка, который уже учтён в size того узла, где он лежит
+        if (right != null) {
+            recountSize(inner);
+            recountSize(right);
+        }
+        return right;
+    }
+
+    private static void recountSize(Inner inner) {
+        int size = 0;
+        for (int i = 0; i < inner.count; i++) {
+            size += inner.children[i].size;
+        }
+        inner.size = size;
+    }
+
+    // Переносит верхнюю половину точек полного листа в новый лист, стоящий правее
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int half = leaf.count / 2;
+        right.count = leaf.count - half;
+        System.arraycopy(leaf.xs, half, right.xs, 0, right.count);
+        System.arraycopy(leaf.ys, half, right.ys, 0, right.count);
+        leaf.count = half;
+        leaf.size = half;
+        right.size = right.count;
+
+        right.prev = leaf;
+        right.next = leaf.next;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        } else {
+            lastLeaf = right;
+        }
+        leaf.next = right;
+        return right;
+    }
+
+    // Переносит верхнюю половину детей полного внутреннего узла в новый узел (число точек пересчитывает вызывающий)
+    private static Inner splitInner(Inner inner) {
+        Inner right = new Inner();
+        int half = inner.count / 2;
+        right.count = inner.count - half;
+        System.arraycopy(inner.children, half, right.children, 0, right.count);
+        System.arraycopy(inner.firstXs, half, right.firstXs, 0, right.count);
+        for (int i = half; i < inner.count; i++) {
+            inner.children[i] = null;
+        }
+        inner.count = half;
+        return right;
+    }
+
+    // Обходит точки по порядку, проходя листья по ссылкам (используется при выводе в потоки)
+    void forEachPoint(TabulatedFunctions.PointConsumer consumer) throws IOException {
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                consumer.accept(leaf.xs[i], leaf.ys[i]);
+            }
+        }
+    }
+
+    // Копии всех координат: [0] - X, [1] - Y
+    private double[][] toArrays() {
+        double[] xs = new double[root.size];
+        double[] ys = new double[root.size];
+        int offset = 0;
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.xs, 0, xs, offset, leaf.count);
+            System.arraycopy(leaf.ys, 0, ys, offset, leaf.count);
+            offset += leaf.count;
+        }
+        return new double[][] {xs, ys};
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(new FunctionPoint(leaf.xs[i], leaf.ys[i]).toString());
+            }
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        // Проверяем, что объект реализует интерфейс TabulatedFunction
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction that = (TabulatedFunction) o;
+        if (getPointsCount() != that.getPointsCount()) return false;
+
+        // Обе функции проходятся последовательно за один проход; координаты сравниваются с учетом EPS
+        return TabulatedFunctions.pointsEqual(this, that);
+    }
+
+    //Хэш-коды всех точек, объединённые через XOR, и количество точек, как в остальных реализациях
+    public int hashCode() {
+        return root.size ^ pointsHash;
+    }
+
+    public Object clone() {
+        try {
+            // Глубокое клонирование: копия строится заново из координат точек
+            TreeTabulatedFunction clone = (TreeTabulatedFunction) super.clone();
+            double[][] points = toArrays();
+            clone.build(points[0], points[1], points[0].length);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    //Компактная сериализация в том же формате, что у ArrayTabulatedFunction: версия формата, количество точек, массивы X и Y
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        double[][] points = toArrays();
+        out.writeByte(SERIAL_FORMAT);
+        out.writeInt(root.size);
+        out.writeUnshared(points[0]);
+        out.writeUnshared(points[1]);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int format = in.readByte();
+        if (format != SERIAL_FORMAT) {
+            throw new InvalidObjectException("Unsupported serialized format version " + format + " (expected " + SERIAL_FORMAT + ")");
+        }
+        int count = in.readInt();
+        double[] xs = TabulatedFunctions.readCoordinates(in);
+        double[] ys = TabulatedFunctions.readCoordinates(in);
+        if (xs.length != count || ys.length != count) {
+            throw new InvalidObjectException("Corrupted tabulated function data");
+        }
+        if (count < 2) {
+            throw new InvalidObjectException("At least two points required");
+        }
+        for (int i = 1; i < count; i++) {
+            if (xs[i] <= xs[i - 1] + EPS) {
+                throw new InvalidObjectException("Points must be strictly increasing by X (index " + i + ")");
+            }
+        }
+        build(xs, ys, count);
+    }
+}
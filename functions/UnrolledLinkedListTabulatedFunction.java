@@ -0,0 +1,489 @@
+package functions;
+import java.io.*;
+
+//Табулированная функция на развёрнутом связном списке: каждый узел хранит до CAPACITY точек подряд в примитивных массивах.
+//Узлов в десятки раз меньше, чем в LinkedListTabulatedFunction, поэтому обход по индексу пропускает точки целыми узлами,
+//а соседние точки лежат в памяти рядом. Отрезок для x ищется двоичным поиском по первым X узлов.
+public class UnrolledLinkedListTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final double EPS = 1e-9;
+    private static final long serialVersionUID = 1L;
+    // Версия компактного формата сериализации, записываемая в начале данных объекта
+    private static final byte SERIAL_FORMAT = 1;
+    // Наибольшее число точек в узле
+    private static final int CAPACITY = 32;
+    // Узел, в котором осталось меньше MIN_FILL точек, сливается с соседним, если их точки помещаются в один узел
+    private static final int MIN_FILL = CAPACITY / 4;
+    // Заполнение узлов при создании функции: оставляет место для вставок без немедленного деления узла
+    private static final int BUILD_FILL = CAPACITY * 3 / 4;
+
+    // Узел списка: count точек в начале массивов xs и ys
+    private static final class Chunk {
+        final double[] xs = new double[CAPACITY];
+        final double[] ys = new double[CAPACITY];
+        int count;
+        Chunk next;
+        Chunk prev;
+    }
+
+    // Узел вместе с индексом его первой точки; неизменяем и заменяется целиком, чтобы узел и индекс всегда были от одной пары
+    private static final class ChunkAt {
+        final Chunk chunk;
+        final int start;
+
+        ChunkAt(Chunk chunk, int start) {
+            this.chunk = chunk;
+            this.start = start;
+        }
+    }
+
+    // Кольцевой список с головой-ограничителем, как в LinkedListTabulatedFunction; голова точек не содержит.
+    // Список не сериализуется по умолчанию: writeObject записывает только количество точек и их координаты
+    private transient Chunk head;
+    private transient int pointsCount;
+
+    // Массив узлов по порядку для двоичного поиска по X; перестраивается лениво после добавления или удаления узлов
+    private transient Chunk[] chunkIndex;
+
+    // Последний узел, найденный по индексу, и индекс его первой точки: последовательный доступ стоит O(1) на шаг
+    private transient ChunkAt lastAccessed;
+
+    // XOR хэш-кодов всех точек: поддерживается при каждом изменении, поэтому hashCode() вычисляется за O(1)
+    private transient int pointsHash;
+
+    // Конструктор с количеством точек (y = 0)
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        if (leftX >= rightX - EPS)
+            throw new IllegalArgumentException("Left border must be less than right border");
+        if (pointsCount < 2)
+            throw new IllegalArgumentException("At least two points required");
+        build(uniformGrid(leftX, rightX, pointsCount), new double[pointsCount], pointsCount);
+    }
+
+    // Конструктор с массивом значений
+    public UnrolledLinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX - EPS)
+            throw new IllegalArgumentException("Left border must be less than right border");
+        if (values.length < 2)
+            throw new IllegalArgumentException("At least two points required");
+        build(uniformGrid(leftX, rightX, values.length), values, values.length);
+    }
+
+    //конструктор, получающий сразу все точки функции в виде массива объектов типа FunctionPoint
+    public UnrolledLinkedListTabulatedFunction(FunctionPoint[] points) {
+        if (points == null)
+            throw new IllegalArgumentException("Points array is null");
+        if (points.length < 2)
+            throw new IllegalArgumentException("At least two points required");
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        xs[0] = points[0].getX();
+        ys[0] = points[0].getY();
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i - 1].getX() + EPS) //  строгое возрастание
+                throw new IllegalArgumentException("Points must be strictly increasing by X (index " + i + ")");
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        build(xs, ys, points.length);
+    }
+
+    private static double[] uniformGrid(double leftX, double rightX, int pointsCount) {
+        double[] xs = new double[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++)
+            xs[i] = leftX + i * step;
+        return xs;
+    }
+
+    // Раскладывает упорядоченные точки по узлам поровну, в среднем по BUILD_FILL точек
+    private void build(double[] xs, double[] ys, int count) {
+        pointsHash = 0;
+        for (int i = 0; i < count; i++)
+            pointsHash ^= FunctionPoint.hashCode(xs[i], ys[i]);
+        head = new Chunk();
+        head.next = head;
+        head.prev = head;
+        int chunks = (count + BUILD_FILL - 1) / BUILD_FILL;
+        for (int j = 0; j < chunks; j++) {
+            int from = (int) ((long) count * j / chunks);
+            int to = (int) ((long) count * (j + 1) / chunks);
+            Chunk chunk = new Chunk();
+            System.arraycopy(xs, from, chunk.xs, 0, to - from);
+            System.arraycopy(ys, from, chunk.ys, 0, to - from);
+            chunk.count = to - from;
+            linkAfter(head.prev, chunk);
+        }
+        pointsCount = count;
+        chunksChanged();
+    }
+
+    // Вставляет узел chunk после узла prev
+    private static void linkAfter(Chunk prev, Chunk chunk) {
+        chunk.prev = prev;
+        chunk.next = prev.next;
+        prev.next.prev = chunk;
+        prev.next = chunk;
+    }
+
+    private static void unlink(Chunk chunk) {
+        chunk.prev.next = chunk.next;
+        chunk.next.prev = chunk.prev;
+    }
+
+    // Сбрасывает всё, что зависит от состава узлов
+    private void chunksChanged() {
+        chunkIndex = null;
+        lastAccessed = null;
+    }
+
+    private Chunk[] getChunkIndex() {
+        if (chunkIndex == null) {
+            int chunks = 0;
+            for (Chunk chunk = head.next; chunk != head; chunk = chunk.next)
+                chunks++;
+            Chunk[] index = new Chunk[chunks];
+            int i = 0;
+            for (Chunk chunk = head.next; chunk != head; chunk = chunk.next)
+                index[i++] = chunk;
+            chunkIndex = index;
+        }
+        return chunkIndex;
+    }
+
+    // Узел, в котором лежит наибольшая точка с X не больше x (первый узел, если таких нет)
+    private Chunk chunkForX(double x) {
+        Chunk[] index = getChunkIndex();
+        int low = 0;
+        int high = index.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (index[mid].xs[0] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return index[low];
+    }
+
+    // Индекс последнего элемента values[0..count), не превосходящего x, или -1
+    private static int lastNotGreater(double[] values, int count, double x) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    // Узел с точкой index и индекс его первой точки.
+    // Обход начинается с ближайшего из начала списка, конца списка и последнего найденного узла и идёт целыми узлами
+    private ChunkAt chunkAt(int index) {
+        if (index < 0 || index >= pointsCount)
+            throw new FunctionPointIndexOutOfBoundsException("Index out of bounds: " + index);
+
+        // Ссылка читается один раз, поэтому узел и его индекс берутся из одного объекта
+        ChunkAt cached = lastAccessed;
+        Chunk chunk;
+        int start;
+        if (cached != null && Math.abs(index - cached.start) < Math.min(index, pointsCount - index)) {
+            chunk = cached.chunk;
+            start = cached.start;
+        } else if (index < pointsCount / 2) {
+            chunk = head.next;
+            start = 0;
+        } else {
+            chunk = head.prev;
+            start = pointsCount - chunk.count;
+        }
+        while (index < start) {
+            chunk = chunk.prev;
+            start -= chunk.count;
+        }
+        while (index >= start + chunk.count) {
+            start += chunk.count;
+            chunk = chunk.next;
+        }
+        if (cached == null || cached.chunk != chunk) {
+            cached = new ChunkAt(chunk, start);
+            lastAccessed = cached;
+        }
+        return cached;
+    }
+
+    // Получение границ функции
+    public double getLeftDomainBorder() {
+        return head.next.xs[0];
+    }
+
+    public double getRightDomainBorder() {
+        return head.prev.xs[head.prev.count - 1];
+    }
+
+    // Количество точек
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    // Линейная интерполяция
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder() || Double.isNaN(x))
+            return Double.NaN;
+
+        // Проверка крайних точек
+        if (Math.abs(x - getLeftDomainBorder()) < EPS)
+            return head.next.ys[0];
+        if (Math.abs(x - getRightDomainBorder()) < EPS)
+            return head.prev.ys[head.prev.count - 1];
+
+        Chunk chunk = chunkForX(x);
+        int i = lastNotGreater(chunk.xs, chunk.count, x);
+        double x1 = chunk.xs[i];
+        double y1 = chunk.ys[i];
+        double x2;
+        double y2;
+        if (i < chunk.count - 1) {
+            x2 = chunk.xs[i + 1];
+            y2 = chunk.ys[i + 1];
+        } else {
+            // Правый конец отрезка - первая точка следующего узла (x левее правой границы, поэтому узел существует)
+            x2 = chunk.next.xs[0];
+            y2 = chunk.next.ys[0];
+        }
+
+        if (x - x1 < EPS)
+            return y1;
+        if (x2 - x < EPS)
+            return y2;
+        return y1 + (y2 - y1) * ((x - x1) / (x2 - x1));
+    }
+
+    // Получение точки
+    public FunctionPoint getPoint(int index) {
+        ChunkAt at = chunkAt(index);
+        return new FunctionPoint(at.chunk.xs[index - at.start], at.chunk.ys[index - at.start]);
+    }
+
+    // Изменение всей точки
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        setPointX(index, point.getX());
+        setPointY(index, point.getY());
+    }
+
+    // Получение X
+    public double getPointX(int index) {
+        ChunkAt at = chunkAt(index);
+        return at.chunk.xs[index - at.start];
+    }
+
+    // Получение Y
+    public double getPointY(int index) {
+        ChunkAt at = chunkAt(index);
+        return at.chunk.ys[index - at.start];
+    }
+
+    // Изменение X
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        ChunkAt at = chunkAt(index);
+        Chunk chunk = at.chunk;
+        int i = index - at.start;
+
+        // Соседние точки могут лежать в соседних узлах; у крайних точек функции соответствующая проверка пропускается
+        if (index > 0) {
+            double previousX = i > 0 ? chunk.xs[i - 1] : chunk.prev.xs[chunk.prev.count - 1];
+            if (x <= previousX + EPS)
+                throw new InappropriateFunctionPointException("New X breaks order of points");
+        }
+        if (index < pointsCount - 1) {
+            double nextX = i < chunk.count - 1 ? chunk.xs[i + 1] : chunk.next.xs[0];
+            if (x >= nextX - EPS)
+                throw new InappropriateFunctionPointException("New X breaks order of points");
+        }
+        pointsHash ^= FunctionPoint.hashCode(chunk.xs[i], chunk.ys[i]) ^ FunctionPoint.hashCode(x, chunk.ys[i]);
+        chunk.xs[i] = x;
+    }
+
+    // Изменение Y
+    public void setPointY(int index, double y) {
+        ChunkAt at = chunkAt(index);
+        Chunk chunk = at.chunk;
+        int i = index - at.start;
+        pointsHash ^= FunctionPoint.hashCode(chunk.xs[i], chunk.ys[i]) ^ FunctionPoint.hashCode(chunk.xs[i], y);
+        chunk.ys[i] = y;
+    }
+
+    // Удаление точки
+    public void deletePoint(int index) {
+        if (pointsCount < 3)
+            throw new IllegalStateException("Cannot delete: at least 3 points required");
+
+        ChunkAt at = chunkAt(index);
+        Chunk chunk = at.chunk;
+        int i = index - at.start;
+        pointsHash ^= FunctionPoint.hashCode(chunk.xs[i], chunk.ys[i]);
+        System.arraycopy(chunk.xs, i + 1, chunk.xs, i, chunk.count - i - 1);
+        System.arraycopy(chunk.ys, i + 1, chunk.ys, i, chunk.count - i - 1);
+        chunk.count--;
+        pointsCount--;
+        lastAccessed = null;
+
+        // Малозаполненный узел сливается с соседом, чтобы число узлов оставалось пропорциональным числу точек
+        if (chunk.count < MIN_FILL) {
+            if (chunk.next != head && chunk.count + chunk.next.count <= CAPACITY) {
+                mergeWithNext(chunk);
+            } else if (chunk.prev != head && chunk.prev.count + chunk.count <= CAPACITY) {
+                mergeWithNext(chunk.prev);
+            } else if (chunk.count == 0) {
+                unlink(chunk);
+                chunksChanged();
+            }
+        }
+    }
+
+    // Переносит точки следующего узла в конец узла chunk и удаляет следующий узел
+    private void mergeWithNext(Chunk chunk) {
+        Chunk next = chunk.next;
+        System.arraycopy(next.xs, 0, chunk.xs, chunk.count, next.count);
+        System.arraycopy(next.ys, 0, chunk.ys, chunk.count, next.count);
+        chunk.count += next.count;
+        unlink(next);
+        chunksChanged();
+    }
+
+    // Добавление новой точки (по значению)
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+
+        // Точка с таким же X может быть только среди соседей места вставки: в найденном узле или первой в следующем
+        Chunk chunk = chunkForX(newX);
+        int i = lastNotGreater(chunk.xs, chunk.count, newX);
+        if ((i >= 0 && Math.abs(chunk.xs[i] - newX) < EPS)
+                || (i + 1 < chunk.count && Math.abs(chunk.xs[i + 1] - newX) < EPS)
+                || (i + 1 == chunk.count && chunk.next != head && Math.abs(chunk.next.xs[0] - newX) < EPS))
+            throw new InappropriateFunctionPointException("Point with same X already exists");
+
+        if (chunk.count == CAPACITY) {
+            // Полный узел делится пополам, точка вставляется в ту половину, куда попадает её X
+            Chunk right = new Chunk();
+            int half = CAPACITY / 2;
+            right.count = CAPACITY - half;
+            System.arraycopy(chunk.xs, half, right.xs, 0, right.count);
+            System.arraycopy(chunk.ys, half, right.ys, 0, right.count);
+            chunk.count = half;
+            linkAfter(chunk, right);
+            chunksChanged();
+            if (i >= half) {
+                chunk = right;
+                i -= half;
+            }
+        }
+
+        System.arraycopy(chunk.xs, i + 1, chunk.xs, i + 2, chunk.count - i - 1);
+        System.arraycopy(chunk.ys, i + 1, chunk.ys, i + 2, chunk.count - i - 1);
+        chunk.xs[i + 1] = newX;
+        chunk.ys[i + 1] = point.getY();
+        pointsHash ^= FunctionPoint.hashCode(newX, point.getY());
+        chunk.count++;
+        pointsCount++;
+        lastAccessed = null;
+    }
+
+    // Обходит точки по порядку узел за узлом (используется при выводе в потоки)
+    void forEachPoint(TabulatedFunctions.PointConsumer consumer) throws IOException {
+        for (Chunk chunk = head.next; chunk != head; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++)
+                consumer.accept(chunk.xs[i], chunk.ys[i]);
+        }
+    }
+
+    // Копии всех координат: [0] - X, [1] - Y
+    private double[][] toArrays() {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        int offset = 0;
+        for (Chunk chunk = head.next; chunk != head; chunk = chunk.next) {
+            System.arraycopy(chunk.xs, 0, xs, offset, chunk.count);
+            System.arraycopy(chunk.ys, 0, ys, offset, chunk.count);
+            offset += chunk.count;
+        }
+        return new double[][] {xs, ys};
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        for (Chunk chunk = head.next; chunk != head; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (sb.length() > 1)
+                    sb.append(", ");
+                sb.append(new FunctionPoint(chunk.xs[i], chunk.ys[i]).toString());
+            }
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        // Проверяем, что объект реализует интерфейс TabulatedFunction
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction that = (TabulatedFunction) o;
+        if (pointsCount != that.getPointsCount()) return false;
+
+        // Обе функции проходятся последовательно за один проход; координаты сравниваются с учетом EPS
+        return TabulatedFunctions.pointsEqual(this, that);
+    }
+
+    //Хэш-коды всех точек, объединённые через XOR, и количество точек, как в остальных реализациях
+    public int hashCode() {
+        return pointsCount ^ pointsHash;
+    }
+
+    public Object clone() {
+        try {
+            // Глубокое клонирование: копия раскладывается по новым узлам из координат точек
+            UnrolledLinkedListTabulatedFunction clone = (UnrolledLinkedListTabulatedFunction) super.clone();
+            double[][] points = toArrays();
+            clone.build(points[0], points[1], pointsCount);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    //Компактная сериализация в том же формате, что у ArrayTabulatedFunction: версия формата, количество точек, массивы X и Y
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        double[][] points = toArrays();
+        out.writeByte(SERIAL_FORMAT);
+        out.writeInt(pointsCount);
+        out.writeUnshared(points[0]);
+        out.writeUnshared(points[1]);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int format = in.readByte();
+        if (format != SERIAL_FORMAT)
+            throw new InvalidObjectException("Unsupported serialized format version " + format + " (expected " + SERIAL_FORMAT + ")");
+        int count = in.readInt();
+        double[] xs = TabulatedFunctions.readCoordinates(in);
+        double[] ys = TabulatedFunctions.readCoordinates(in);
+        if (xs.length != count || ys.length != count)
+            throw new InvalidObjectException("Corrupted tabulated function data");
+        if (count < 2)
+            throw new InvalidObjectException("At least two points required");
+        for (int i = 1; i < count; i++) {
+            if (xs[i] <= xs[i - 1] + EPS)
+                throw new InvalidObjectException("Points must be strictly increasing by X (index " + i + ")");
+        }
+        build(xs, ys, count);
+    }
+}
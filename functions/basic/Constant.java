@@ -0,0 +1,52 @@
+package functions.basic;
+
+import functions.Function;
+
+//Постоянная функция: f(x) = value на заданной области определения
+public class Constant implements Function {
+    private final double value;
+    private final double leftDomainBorder;
+    private final double rightDomainBorder;
+
+    //Постоянная функция на всей числовой прямой
+    public Constant(double value) {
+        this(value, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    //Постоянная функция с заданной областью определения
+    public Constant(double value, double leftDomainBorder, double rightDomainBorder) {
+        this.value = value;
+        this.leftDomainBorder = leftDomainBorder;
+        this.rightDomainBorder = rightDomainBorder;
+    }
+
+    //Значение функции
+    public double getValue() {
+        return value;
+    }
+
+    public double getLeftDomainBorder() {
+        return leftDomainBorder;
+    }
+
+    public double getRightDomainBorder() {
+        return rightDomainBorder;
+    }
+
+    //Определена ли функция на всей числовой прямой
+    public boolean isDefinedEverywhere() {
+        return leftDomainBorder == Double.NEGATIVE_INFINITY && rightDomainBorder == Double.POSITIVE_INFINITY;
+    }
+
+    public double getFunctionValue(double x) {
+        return value;
+    }
+
+    //Пакетное вычисление: заполнение массива значением функции
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        java.util.Arrays.fill(out, 0, xs.length, value);
+    }
+}
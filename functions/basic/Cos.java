@@ -3,7 +3,31 @@ package functions.basic;
 //Функция косинуса: f(x) = cos(x)
 public class Cos extends TrigonometricFunction {
 
+    public Cos() {
+    }
+
+    //Функция с заданным способом вычисления (MathMode.FAST - через FastMath)
+    public Cos(MathMode mode) {
+        super(mode);
+    }
+
     public double getFunctionValue(double x) {
-        return Math.cos(x);
+        return getMode() == MathMode.FAST ? FastMath.cos(x) : Math.cos(x);
+    }
+
+    //Пакетное вычисление значений в одном цикле
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (getMode() == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = FastMath.cos(xs[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.cos(xs[i]);
+        }
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,25 @@ import functions.Function;
 
 // функция экспоненты: f(x) = e^x
 public class Exp implements Function {
+    // Способ вычисления: Math или FastMath
+    private final MathMode mode;
+
+    public Exp() {
+        this(MathMode.EXACT);
+    }
+
+    //Функция с заданным способом вычисления (MathMode.FAST - через FastMath)
+    public Exp(MathMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Math mode is null");
+        }
+        this.mode = mode;
+    }
+
+    //Возвращает способ вычисления функции
+    public MathMode getMode() {
+        return mode;
+    }
 
     //Область определения: (-бесконечность, +бесконечность)
 
@@ -18,6 +37,22 @@ public class Exp implements Function {
      //Вычисляет значение e^x
 
     public double getFunctionValue(double x) {
-        return Math.exp(x);
+        return mode == MathMode.FAST ? FastMath.exp(x) : Math.exp(x);
+    }
+
+    //Пакетное вычисление значений e^x в одном цикле
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (mode == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = FastMath.exp(xs[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
     }
 }
@@ -0,0 +1,180 @@
+package functions.basic;
+
+//Быстрые реализации sin, cos, tan и exp: таблица значений в узлах и короткий многочлен для остатка.
+//Используются функциями из functions.basic в режиме MathMode.FAST.
+//
+//sin, cos: x = k * S + r, где S = pi / 128, |r| <= S / 2. Значения sin(kS) и cos(kS) берутся из таблицы на 256 узлов
+//(полный оборот), sin(r) и cos(r) - многочлены Тейлора до r^7 и r^6. Остаток вычисляется с pi / 2, разложенным
+//на три части (как в fdlibm), поэтому точен при |x| <= TRIG_LIMIT и около нулей sin и cos; для больших |x|,
+//бесконечностей и NaN вызывается Math.
+//Погрешность измерена против вычисления с 45 знаками на 6 * 10^5 случайных аргументов (на [-TRIG_LIMIT, TRIG_LIMIT],
+//на [-10, 10] и в пределах +-pi / 64 от нулей sin и cos): sin и cos - до 2.5 ulp результата, tan - до 4 ulp
+//(у Math - до 0.51 ulp). Наибольшая погрешность - там, где результат меньше ближайшего значения из таблицы
+//(x около +-pi / 128 от нуля функции). В пределах 4 ulp от m * Math.PI и (m + 1/2) * Math.PI при |m| <= 2600
+//sin и cos отличаются от точного значения не больше чем на 0.5 ulp, tan - не больше чем на 1.5 ulp.
+//
+//exp: x = k * ln2 / 256 + r, |r| <= ln2 / 512; exp(x) = 2^(k / 256) * exp(r), 2^(j / 256) - из таблицы, exp(r) - многочлен
+//до r^5. При x вне [-708, 709] (переполнение, денормализованные результаты) и для NaN вызывается Math.exp.
+//Погрешность (измерена так же на 3 * 10^5 случайных аргументов на [-708, 709] и [-20, 20]) - до 1 ulp результата.
+public final class FastMath {
+
+    //Наибольший |x|, при котором sin, cos и tan вычисляются по таблице
+    public static final double TRIG_LIMIT = 8192;
+
+    private static final int TRIG_TABLE_SIZE = 256;
+    private static final int TRIG_TABLE_MASK = TRIG_TABLE_SIZE - 1;
+    // pi / 2 = PIO2_HI + PIO2_MID + PIO2_LO, у PIO2_HI и PIO2_MID по 33 значащих бита (константы fdlibm pio2_1, pio2_2, pio2_2t)
+    private static final double PIO2_HI = 1.57079632673412561417e+00;
+    private static final double PIO2_MID = 6.07710050630396597660e-11;
+    private static final double PIO2_LO = 2.02226624879595063154e-21;
+    // Шаг таблицы S = pi / 128 = (pi / 2) / 64, деление на степень двойки точное.
+    // При |k| < 2^20 произведения k * STEP_HI и k * STEP_MID точные, поэтому около нулей sin и cos, где x - k * STEP_HI
+    // почти равно k * STEP_MID, остаток не теряет значащих цифр
+    private static final double STEP_HI = PIO2_HI / 64;
+    private static final double STEP_MID = PIO2_MID / 64;
+    private static final double STEP_LO = PIO2_LO / 64;
+    private static final double INV_STEP = 128 / Math.PI;
+
+    // Коэффициенты многочленов для sin(r) и cos(r) - 1
+    private static final double S3 = -1.0 / 6;
+    private static final double S5 = 1.0 / 120;
+    private static final double S7 = -1.0 / 5040;
+    private static final double C2 = -1.0 / 2;
+    private static final double C4 = 1.0 / 24;
+    private static final double C6 = -1.0 / 720;
+
+    private static final double[] SIN_TABLE = new double[TRIG_TABLE_SIZE];
+    private static final double[] COS_TABLE = new double[TRIG_TABLE_SIZE];
+
+    private static final int EXP_TABLE_SIZE = 256;
+    private static final int EXP_TABLE_MASK = EXP_TABLE_SIZE - 1;
+    // ln2 = LN2_HI + LN2_LO, у LN2_HI 32 значащих бита (константы fdlibm)
+    private static final double LN2_HI = 6.93147180369123816490e-01;
+    private static final double LN2_LO = 1.90821492927058770002e-10;
+    private static final double EXP_STEP_HI = LN2_HI / EXP_TABLE_SIZE;
+    private static final double EXP_STEP_LO = LN2_LO / EXP_TABLE_SIZE;
+    private static final double INV_EXP_STEP = EXP_TABLE_SIZE / Math.log(2);
+    private static final double EXP_MIN = -708;
+    private static final double EXP_MAX = 709;
+
+    // 2^(j / 256)
+    private static final double[] EXP_TABLE = new double[EXP_TABLE_SIZE];
+
+    static {
+        // sin(m * S) для первой четверти; аргумент m * S округлён до double, поэтому значение поправляется
+        // на разность между точным и округлённым аргументом: sin(a + d) ~ sin(a) + cos(a) * d
+        double[] quarter = new double[TRIG_TABLE_SIZE / 4 + 1];
+        for (int m = 1; m < quarter.length - 1; m++) {
+            double a = m * (Math.PI / 128);
+            double d = ((m * STEP_HI - a) + m * STEP_MID) + m * STEP_LO;
+            quarter[m] = Math.sin(a) + Math.cos(a) * d;
+        }
+        quarter[0] = 0;
+        quarter[quarter.length - 1] = 1;
+        // Остальные четверти - по формулам приведения, так что sin и cos в узлах кратных pi / 2 точно равны 0 и +-1
+        int q = TRIG_TABLE_SIZE / 4;
+        for (int j = 0; j < TRIG_TABLE_SIZE; j++) {
+            int m = j % q;
+            switch (j / q) {
+                case 0: SIN_TABLE[j] = quarter[m]; COS_TABLE[j] = quarter[q - m]; break;
+                case 1: SIN_TABLE[j] = quarter[q - m]; COS_TABLE[j] = -quarter[m]; break;
+                case 2: SIN_TABLE[j] = -quarter[m]; COS_TABLE[j] = -quarter[q - m]; break;
+                default: SIN_TABLE[j] = -quarter[q - m]; COS_TABLE[j] = quarter[m]; break;
+            }
+        }
+        for (int j = 0; j < EXP_TABLE_SIZE; j++) {
+            EXP_TABLE[j] = Math.pow(2, (double) j / EXP_TABLE_SIZE);
+        }
+    }
+
+    //Приватный конструктор запрещает создание объектов этого класса
+    private FastMath() {
+
+    }
+
+    public static double sin(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.sin(x);
+        }
+        if (x == 0) {
+            // Сохраняет знак -0.0, как Math.sin
+            return x;
+        }
+        double k = Math.rint(x * INV_STEP);
+        double r = ((x - k * STEP_HI) - k * STEP_MID) - k * STEP_LO;
+        int j = (int) k & TRIG_TABLE_MASK;
+        double r2 = r * r;
+        double sinR = r + r * r2 * (S3 + r2 * (S5 + r2 * S7));
+        double cosRm1 = r2 * (C2 + r2 * (C4 + r2 * C6));
+        // sin(kS + r) = sin(kS) cos(r) + cos(kS) sin(r); слагаемое из таблицы прибавляется последним
+        return SIN_TABLE[j] + (SIN_TABLE[j] * cosRm1 + COS_TABLE[j] * sinR);
+    }
+
+    public static double cos(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.cos(x);
+        }
+        double k = Math.rint(x * INV_STEP);
+        double r = ((x - k * STEP_HI) - k * STEP_MID) - k * STEP_LO;
+        int j = (int) k & TRIG_TABLE_MASK;
+        double r2 = r * r;
+        double sinR = r + r * r2 * (S3 + r2 * (S5 + r2 * S7));
+        double cosRm1 = r2 * (C2 + r2 * (C4 + r2 * C6));
+        // cos(kS + r) = cos(kS) cos(r) - sin(kS) sin(r)
+        return COS_TABLE[j] + (COS_TABLE[j] * cosRm1 - SIN_TABLE[j] * sinR);
+    }
+
+    public static double tan(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.tan(x);
+        }
+        if (x == 0) {
+            return x;
+        }
+        double k = Math.rint(x * INV_STEP);
+        double r = ((x - k * STEP_HI) - k * STEP_MID) - k * STEP_LO;
+        int j = (int) k & TRIG_TABLE_MASK;
+        double r2 = r * r;
+        double sinR = r + r * r2 * (S3 + r2 * (S5 + r2 * S7));
+        double cosRm1 = r2 * (C2 + r2 * (C4 + r2 * C6));
+        return (SIN_TABLE[j] + (SIN_TABLE[j] * cosRm1 + COS_TABLE[j] * sinR))
+                / (COS_TABLE[j] + (COS_TABLE[j] * cosRm1 - SIN_TABLE[j] * sinR));
+    }
+
+    //sin(x) и cos(x) с общим приведением аргумента; результаты записываются в sinOut[sinIndex] и cosOut[cosIndex]
+    static void sinCos(double x, double[] sinOut, int sinIndex, double[] cosOut, int cosIndex) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            sinOut[sinIndex] = Math.sin(x);
+            cosOut[cosIndex] = Math.cos(x);
+            return;
+        }
+        if (x == 0) {
+            sinOut[sinIndex] = x;
+            cosOut[cosIndex] = 1;
+            return;
+        }
+        double k = Math.rint(x * INV_STEP);
+        double r = ((x - k * STEP_HI) - k * STEP_MID) - k * STEP_LO;
+        int j = (int) k & TRIG_TABLE_MASK;
+        double r2 = r * r;
+        double sinR = r + r * r2 * (S3 + r2 * (S5 + r2 * S7));
+        double cosRm1 = r2 * (C2 + r2 * (C4 + r2 * C6));
+        sinOut[sinIndex] = SIN_TABLE[j] + (SIN_TABLE[j] * cosRm1 + COS_TABLE[j] * sinR);
+        cosOut[cosIndex] = COS_TABLE[j] + (COS_TABLE[j] * cosRm1 - SIN_TABLE[j] * sinR);
+    }
+
+    public static double exp(double x) {
+        if (!(x >= EXP_MIN && x <= EXP_MAX)) {
+            return Math.exp(x);
+        }
+        double k = Math.rint(x * INV_EXP_STEP);
+        double r = (x - k * EXP_STEP_HI) - k * EXP_STEP_LO;
+        int n = (int) k;
+        double t = EXP_TABLE[n & EXP_TABLE_MASK];
+        // exp(r) - 1
+        double p = r + r * r * (0.5 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120))));
+        // 2^(n >> 8) собирается прямо из битов порядка: при x из [-708, 709] он нормализованный
+        double scale = Double.longBitsToDouble((long) ((n >> 8) + 1023) << 52);
+        return (t + t * p) * scale;
+    }
+}
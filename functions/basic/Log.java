@@ -5,13 +5,40 @@ import functions.Function;
 //логарифм по заданному основанию: f(x) = log_base(x)
 public class Log implements Function {
     private final double base; // Основание логарифма
+    // ln(base) и 1 / ln(base) вычисляются один раз при создании
+    private final double lnBase;
+    private final double invLnBase;
+    // Способ вычисления: в режиме FAST деление на ln(base) заменяется умножением
+    // на 1 / ln(base); результат отличается от режима EXACT не больше чем на 1 ulp
+    private final MathMode mode;
 
     // Конструктор, принимающий основание логарифма
     public Log(double base) {
+        this(base, MathMode.EXACT);
+    }
+
+    //Логарифм с заданным способом вычисления
+    public Log(double base, MathMode mode) {
         if (base <= 0 || base == 1) {
             throw new IllegalArgumentException("The base of the logarithm must be > 0 and not equal to 1");
         }
+        if (mode == null) {
+            throw new IllegalArgumentException("Math mode is null");
+        }
         this.base = base;
+        this.lnBase = Math.log(base);
+        this.invLnBase = 1 / lnBase;
+        this.mode = mode;
+    }
+
+    //Возвращает основание логарифма
+    public double getBase() {
+        return base;
+    }
+
+    //Возвращает способ вычисления функции
+    public MathMode getMode() {
+        return mode;
     }
 
     //Область определения: (0, +бесконечность)
@@ -31,6 +58,24 @@ public class Log implements Function {
         if (x <= 0) {
             return Double.NaN;
         }
-        return Math.log(x) / Math.log(base);
+        return mode == MathMode.FAST ? Math.log(x) * invLnBase : Math.log(x) / lnBase;
+    }
+
+    //Пакетное вычисление логарифмов
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (mode == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                double x = xs[i];
+                out[i] = x <= 0 ? Double.NaN : Math.log(x) * invLnBase;
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = x <= 0 ? Double.NaN : Math.log(x) / lnBase;
+        }
     }
 }
\ No newline at end of file
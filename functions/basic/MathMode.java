@@ -0,0 +1,9 @@
+package functions.basic;
+
+//Способ вычисления элементарных функций
+public enum MathMode {
+    // Методы Math (по умолчанию)
+    EXACT,
+    // Таблица и многочлен из FastMath: быстрее, погрешность до нескольких ulp (границы описаны в FastMath)
+    FAST
+}
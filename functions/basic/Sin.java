@@ -3,7 +3,31 @@ package functions.basic;
 //Функция синуса: f(x) = sin(x)
 public class Sin extends TrigonometricFunction {
 
+    public Sin() {
+    }
+
+    //Функция с заданным способом вычисления (MathMode.FAST - через FastMath)
+    public Sin(MathMode mode) {
+        super(mode);
+    }
+
     public double getFunctionValue(double x) {
-        return Math.sin(x);
+        return getMode() == MathMode.FAST ? FastMath.sin(x) : Math.sin(x);
+    }
+
+    //Пакетное вычисление значений в одном цикле
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (getMode() == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = FastMath.sin(xs[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.sin(xs[i]);
+        }
     }
 }
@@ -0,0 +1,69 @@
+package functions.basic;
+
+//Совместное вычисление sin(x) и cos(x). В режиме MathMode.FAST аргумент приводится один раз для обоих значений,
+//в режиме EXACT вызываются Math.sin и Math.cos.
+//Объект хранит результат последнего evaluate(x), поэтому его нельзя вызывать из нескольких потоков сразу;
+//пакетный getValues состояния не меняет
+public class SinCos {
+    private final MathMode mode;
+    // Результат последнего evaluate(x): sin в values[0], cos в values[1]
+    private final double[] values = new double[2];
+
+    public SinCos() {
+        this(MathMode.EXACT);
+    }
+
+    public SinCos(MathMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Math mode is null");
+        }
+        this.mode = mode;
+    }
+
+    //Возвращает способ вычисления
+    public MathMode getMode() {
+        return mode;
+    }
+
+    //Вычисляет sin(x) и cos(x); результаты возвращают getSin() и getCos()
+    public void evaluate(double x) {
+        if (mode == MathMode.FAST) {
+            FastMath.sinCos(x, values, 0, values, 1);
+        } else {
+            values[0] = Math.sin(x);
+            values[1] = Math.cos(x);
+        }
+    }
+
+    //sin аргумента последнего evaluate(x)
+    public double getSin() {
+        return values[0];
+    }
+
+    //cos аргумента последнего evaluate(x)
+    public double getCos() {
+        return values[1];
+    }
+
+    //Пакетное вычисление: sinOut[i] = sin(xs[i]), cosOut[i] = cos(xs[i])
+    public void getValues(double[] xs, double[] sinOut, double[] cosOut) {
+        if (sinOut.length < xs.length || cosOut.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (sinOut == cosOut) {
+            throw new IllegalArgumentException("Output arrays for sin and cos must be different");
+        }
+        if (mode == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                FastMath.sinCos(xs[i], sinOut, i, cosOut, i);
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            // Аргумент читается до записи: выходной массив может совпадать с xs
+            double x = xs[i];
+            sinOut[i] = Math.sin(x);
+            cosOut[i] = Math.cos(x);
+        }
+    }
+}
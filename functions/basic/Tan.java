@@ -3,7 +3,31 @@ package functions.basic;
 //Функция тангенса: f(x) = tan(x)
 public class Tan extends TrigonometricFunction {
 
+    public Tan() {
+    }
+
+    //Функция с заданным способом вычисления (MathMode.FAST - через FastMath)
+    public Tan(MathMode mode) {
+        super(mode);
+    }
+
     public double getFunctionValue(double x) {
-        return Math.tan(x);
+        return getMode() == MathMode.FAST ? FastMath.tan(x) : Math.tan(x);
+    }
+
+    //Пакетное вычисление значений в одном цикле
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (getMode() == MathMode.FAST) {
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = FastMath.tan(xs[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.tan(xs[i]);
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,24 @@ import functions.Function;
 //Класс для тригонометрических функций
 
 public abstract class TrigonometricFunction implements Function {
+    // Способ вычисления: Math или FastMath
+    private final MathMode mode;
+
+    protected TrigonometricFunction() {
+        this(MathMode.EXACT);
+    }
+
+    protected TrigonometricFunction(MathMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Math mode is null");
+        }
+        this.mode = mode;
+    }
+
+    //Возвращает способ вычисления функции
+    public MathMode getMode() {
+        return mode;
+    }
 
     //Область определения для синуса, косинуса и тангенса: (-бесконечность, +бесконечность)
     public double getLeftDomainBorder() {
@@ -0,0 +1,161 @@
+package functions.meta;
+
+import functions.Function;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+
+//Функция, которая на отрезке [leftX, rightX] вычисляется по таблице значений исходной функции (линейной интерполяцией),
+//а вне отрезка - самой исходной функцией. Таблица строится один раз при создании:
+// - сначала адаптивным табулированием с допустимой погрешностью maxError;
+// - затем, если равномерная сетка с самым коротким шагом адаптивной таблицы не больше чем в UNIFORM_OVERHEAD раз
+//   длиннее её и не менее точна, используется равномерная сетка: на ней отрезок для x находится за O(1), без поиска.
+//Погрешность таблицы измеряется при построении в середине и четвертях каждого отрезка, а также сразу за его левым концом:
+//таблица возвращает значение в узле для x, отстоящих от узла меньше чем на EPS, и это задаёт нижнюю границу погрешности
+//порядка |f'(x)| * EPS
+public class ApproximatedFunction implements Function {
+
+    //Наибольшее число точек таблицы по умолчанию (16 МБ координат)
+    public static final int DEFAULT_MAX_POINTS = 1 << 20;
+    // Во сколько раз равномерная сетка может быть длиннее адаптивной, чтобы её выбрать
+    private static final int UNIFORM_OVERHEAD = 4;
+    // Размер заголовка массива в куче (оценка для 64-битной JVM)
+    private static final int ARRAY_HEADER_BYTES = 16;
+    // Точность совпадения X с узлом таблицы, как в табулированных функциях
+    private static final double EPS = 1e-9;
+    // Число контрольных точек на отрезок при измерении погрешности
+    private static final int PROBES = 4;
+
+    private final Function function;
+    private final double leftX;
+    private final double rightX;
+    private final TabulatedFunction table;
+    private final double maxError;
+
+    //Таблица на отрезке [leftX, rightX] с погрешностью не больше maxError (в пределах DEFAULT_MAX_POINTS точек)
+    public ApproximatedFunction(Function function, double leftX, double rightX, double maxError) {
+        this(function, leftX, rightX, maxError, DEFAULT_MAX_POINTS);
+    }
+
+    //Таблица на отрезке [leftX, rightX] с погрешностью не больше maxError и не больше maxPointsCount точек.
+    //Если точек не хватило, фактическая погрешность больше maxError - её сообщает getMaxError()
+    public ApproximatedFunction(Function function, double leftX, double rightX, double maxError, int maxPointsCount) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        if (!(maxError > 0) || Double.isInfinite(maxError)) {
+            throw new IllegalArgumentException("Maximum error must be positive and finite");
+        }
+        this.function = function;
+        this.leftX = leftX;
+        this.rightX = rightX;
+
+        TabulatedFunction adaptive = TabulatedFunctions.tabulateAdaptive(function, leftX, rightX, maxError, 0, maxPointsCount);
+        double adaptiveError = measureError(function, adaptive);
+
+        TabulatedFunction best = adaptive;
+        double bestError = adaptiveError;
+        int adaptiveCount = adaptive.getPointsCount();
+        double minStep = rightX - leftX;
+        for (int i = 1; i < adaptiveCount; i++) {
+            minStep = Math.min(minStep, adaptive.getPointX(i) - adaptive.getPointX(i - 1));
+        }
+        double uniformCount = Math.ceil((rightX - leftX) / minStep) + 1;
+        if (adaptiveCount > 2 && uniformCount <= (double) adaptiveCount * UNIFORM_OVERHEAD && uniformCount <= maxPointsCount) {
+            TabulatedFunction uniform = TabulatedFunctions.tabulate(function, leftX, rightX, (int) uniformCount);
+            double uniformError = measureError(function, uniform);
+            if (uniformError <= Math.max(maxError, adaptiveError)) {
+                best = uniform;
+                bestError = uniformError;
+            }
+        }
+        this.table = best;
+        this.maxError = bestError;
+    }
+
+    // Наибольшая погрешность таблицы в контрольных точках отрезков; неопределённая погрешность считается бесконечной
+    private static double measureError(Function function, TabulatedFunction table) {
+        double max = 0;
+        int count = table.getPointsCount();
+        double[] probes = new double[PROBES];
+        double[] exact = new double[PROBES];
+        double[] interpolated = new double[PROBES];
+        for (int i = 0; i < count - 1; i++) {
+            double x1 = table.getPointX(i);
+            double x2 = table.getPointX(i + 1);
+            for (int k = 0; k < 3; k++) {
+                probes[k] = x1 + (x2 - x1) * (k + 1) / 4;
+            }
+            // Последняя точка, для которой таблица ещё возвращает значение в узле x1
+            probes[3] = Math.min(x1 + EPS * 0.99, probes[0]);
+            function.getFunctionValues(probes, exact);
+            table.getFunctionValues(probes, interpolated);
+            for (int k = 0; k < PROBES; k++) {
+                if (Double.isNaN(exact[k]) && Double.isNaN(interpolated[k])) {
+                    continue;
+                }
+                double error = Math.abs(exact[k] - interpolated[k]);
+                if (!(error <= max)) {
+                    max = Double.isNaN(error) ? Double.POSITIVE_INFINITY : error;
+                }
+            }
+        }
+        return max;
+    }
+
+    //Исходная функция
+    public Function getFunction() {
+        return function;
+    }
+
+    //Таблица значений (только для чтения)
+    public TabulatedFunction getTable() {
+        return table.freeze();
+    }
+
+    //Измеренная при построении наибольшая погрешность таблицы
+    public double getMaxError() {
+        return maxError;
+    }
+
+    //Оценка памяти, занятой таблицей: два массива double по числу точек
+    public long getMemoryBytes() {
+        return 2 * (ARRAY_HEADER_BYTES + 8L * table.getPointsCount());
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    //Внутри отрезка таблицы - значение по таблице, вне его - значение исходной функции
+    public double getFunctionValue(double x) {
+        if (x >= leftX && x <= rightX) {
+            return table.getFunctionValue(x);
+        }
+        return function.getFunctionValue(x);
+    }
+
+    //Пакетное вычисление по таблице; аргументы вне её отрезка вычисляются исходной функцией
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        if (out == xs) {
+            // Аргументы перезаписываются значениями, поэтому вычисляем по одному
+            for (int i = 0; i < xs.length; i++) {
+                out[i] = getFunctionValue(xs[i]);
+            }
+            return;
+        }
+        table.getFunctionValues(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            if (!(x >= leftX && x <= rightX)) {
+                out[i] = function.getFunctionValue(x);
+            }
+        }
+    }
+}
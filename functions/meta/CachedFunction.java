@@ -0,0 +1,367 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Функция, запоминающая вычисленные значения исходной функции в ограниченном кэше.
+//Ключ - сам аргумент (или аргумент, округлённый до кратного шагу квантования) в виде битов double:
+//поиск идёт по примитивным массивам с открытой адресацией, без объектов Double и записей на каждое значение.
+//Кэш разделён на сегменты со своими блокировками, поэтому функцию можно вычислять из нескольких потоков;
+//исходная функция вычисляется вне блокировки. При заполнении сегмента вытесняется значение по правилу LRU или CLOCK
+public class CachedFunction implements Function {
+
+    //Правило вытеснения при заполнении кэша
+    public enum Eviction {
+        // Вытесняется значение, к которому дольше всего не обращались
+        LRU,
+        // "Второй шанс": стрелка проходит по значениям по кругу и вытесняет первое, к которому не обращались
+        // с прошлого прохода; попадание только ставит отметку и дешевле, чем перестановка в списке LRU
+        CLOCK
+    }
+
+    //Параметры кэша; методы возвращают этот же объект, чтобы их можно было вызывать цепочкой
+    public static final class Config {
+        private int capacity = 4096;
+        private Eviction eviction = Eviction.LRU;
+        private double quantum;
+        private int segments = 16;
+
+        //Наибольшее количество хранимых значений
+        public Config capacity(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Cache capacity must be positive");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Config eviction(Eviction eviction) {
+            if (eviction == null) {
+                throw new IllegalArgumentException("Eviction policy is null");
+            }
+            this.eviction = eviction;
+            return this;
+        }
+
+        //Шаг квантования аргумента: x округляется до ближайшего кратного quantum, и значение вычисляется
+        //в округлённой точке. 0 - без квантования, значения запоминаются для точных аргументов
+        public Config quantum(double quantum) {
+            if (!(quantum >= 0) || Double.isInfinite(quantum)) {
+                throw new IllegalArgumentException("Quantum must be finite and non-negative");
+            }
+            this.quantum = quantum;
+            return this;
+        }
+
+        //Количество сегментов с отдельными блокировками (округляется вверх до степени двойки, не больше 256)
+        public Config segments(int segments) {
+            if (segments < 1 || segments > MAX_SEGMENTS) {
+                throw new IllegalArgumentException("Segments count must be between 1 and " + MAX_SEGMENTS);
+            }
+            this.segments = segments;
+            return this;
+        }
+    }
+
+    private static final int MAX_SEGMENTS = 256;
+
+    private final Function function;
+    private final double quantum;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedFunction(Function function) {
+        this(function, new Config());
+    }
+
+    public CachedFunction(Function function, Config config) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("Config is null");
+        }
+        this.function = function;
+        this.quantum = config.quantum;
+
+        // Количество сегментов - степень двойки, и сегментов не больше, чем значений
+        int count = 1;
+        while (count < config.segments && count * 2 <= config.capacity) {
+            count <<= 1;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Ёмкость делится между сегментами с округлением вверх
+            segments[i] = new Segment((config.capacity + count - 1) / count, config.eviction);
+        }
+        segmentMask = count - 1;
+    }
+
+    //Исходная функция
+    public Function getFunction() {
+        return function;
+    }
+
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    public double getFunctionValue(double x) {
+        if (Double.isNaN(x)) {
+            // У NaN нет одного представления в битах, такие аргументы не запоминаются
+            return function.getFunctionValue(x);
+        }
+        // + 0.0 превращает -0.0 после округления в 0.0, чтобы у узла квантования был один ключ
+        double key = quantum > 0 ? Math.rint(x / quantum) * quantum + 0.0 : x;
+        long bits = Double.doubleToRawLongBits(key);
+        int hash = hash(bits);
+        Segment segment = segments[(hash >>> 24) & segmentMask];
+
+        segment.lock.lock();
+        try {
+            int entry = segment.find(bits, hash);
+            if (entry >= 0) {
+                segment.touch(entry);
+                hits.increment();
+                return segment.values[entry];
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        misses.increment();
+        double value = function.getFunctionValue(key);
+        segment.lock.lock();
+        try {
+            // Другой поток мог успеть запомнить то же значение, пока оно вычислялось
+            if (segment.find(bits, hash) < 0 && segment.put(bits, hash, value)) {
+                evictions.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return value;
+    }
+
+    //Количество вычислений, для которых значение нашлось в кэше
+    public long getHits() {
+        return hits.sum();
+    }
+
+    //Количество вычислений исходной функции
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    //Количество значений, вытесненных из заполненного кэша
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    //Количество значений в кэше
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    //Удаляет все значения из кэша; счётчики попаданий и промахов не сбрасываются
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    // Перемешивание битов ключа: старшие биты хэша выбирают сегмент, младшие - ячейку таблицы.
+    // Старшая половина битов сначала складывается с младшей: у целых и "круглых" аргументов младшие биты мантиссы нулевые,
+    // и без этого все они попадали бы в одну ячейку. Берётся старшая половина произведения - она зависит от всех битов
+    private static int hash(long bits) {
+        long h = (bits ^ (bits >>> 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    // Сегмент кэша. Значения лежат в массивах по номерам записей 0..capacity-1, а таблица с открытой адресацией
+    // (линейное пробирование) хранит номер записи + 1 (0 - пустая ячейка). Все методы вызываются под lock
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final Eviction eviction;
+        final int capacity;
+
+        final long[] keys;
+        final double[] values;
+        // Ячейка таблицы, в которой лежит запись (нужна при вытеснении)
+        final int[] slotOf;
+        final int[] table;
+        final int tableMask;
+
+        // LRU: двусвязный список записей от недавних к давним
+        final int[] newer;
+        final int[] older;
+        int newest = -1;
+        int oldest = -1;
+
+        // CLOCK: отметки обращений и стрелка
+        final boolean[] referenced;
+        int hand;
+
+        int size;
+
+        Segment(int capacity, Eviction eviction) {
+            this.capacity = capacity;
+            this.eviction = eviction;
+            keys = new long[capacity];
+            values = new double[capacity];
+            slotOf = new int[capacity];
+            // Таблица заполнена не больше чем наполовину
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            table = new int[tableSize];
+            tableMask = tableSize - 1;
+            if (eviction == Eviction.LRU) {
+                newer = new int[capacity];
+                older = new int[capacity];
+                referenced = null;
+            } else {
+                newer = null;
+                older = null;
+                referenced = new boolean[capacity];
+            }
+        }
+
+        // Номер записи с ключом bits или -1
+        int find(long bits, int hash) {
+            for (int slot = hash & tableMask; table[slot] != 0; slot = (slot + 1) & tableMask) {
+                int entry = table[slot] - 1;
+                if (keys[entry] == bits) {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+
+        // Отмечает обращение к записи
+        void touch(int entry) {
+            if (eviction == Eviction.CLOCK) {
+                referenced[entry] = true;
+            } else if (entry != newest) {
+                unlink(entry);
+                linkNewest(entry);
+            }
+        }
+
+        // Добавляет значение, которого нет в сегменте; возвращает true, если ради него вытеснено другое
+        boolean put(long bits, int hash, double value) {
+            int entry;
+            boolean evicted = size == capacity;
+            if (evicted) {
+                entry = victim();
+                removeSlot(slotOf[entry]);
+            } else {
+                entry = size++;
+            }
+            keys[entry] = bits;
+            values[entry] = value;
+            int slot = hash & tableMask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            table[slot] = entry + 1;
+            slotOf[entry] = slot;
+            if (eviction == Eviction.CLOCK) {
+                referenced[entry] = false;
+            } else {
+                linkNewest(entry);
+            }
+            return evicted;
+        }
+
+        // Запись, которая будет вытеснена; для LRU она уже исключена из списка
+        private int victim() {
+            if (eviction == Eviction.LRU) {
+                int entry = oldest;
+                unlink(entry);
+                return entry;
+            }
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = hand + 1 == capacity ? 0 : hand + 1;
+            }
+            int entry = hand;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+            return entry;
+        }
+
+        // Освобождает ячейку таблицы, сдвигая назад записи той же цепочки пробирования, чтобы поиск их не потерял
+        private void removeSlot(int hole) {
+            int slot = (hole + 1) & tableMask;
+            while (table[slot] != 0) {
+                int entry = table[slot] - 1;
+                int home = hash(keys[entry]) & tableMask;
+                // Запись можно перенести в дыру, если дыра лежит между её исходной ячейкой и текущей
+                if (((slot - home) & tableMask) >= ((slot - hole) & tableMask)) {
+                    table[hole] = table[slot];
+                    slotOf[entry] = hole;
+                    hole = slot;
+                }
+                slot = (slot + 1) & tableMask;
+            }
+            table[hole] = 0;
+        }
+
+        private void linkNewest(int entry) {
+            newer[entry] = -1;
+            older[entry] = newest;
+            if (newest >= 0) {
+                newer[newest] = entry;
+            } else {
+                oldest = entry;
+            }
+            newest = entry;
+        }
+
+        private void unlink(int entry) {
+            int n = newer[entry];
+            int o = older[entry];
+            if (n >= 0) {
+                older[n] = o;
+            } else {
+                newest = o;
+            }
+            if (o >= 0) {
+                newer[o] = n;
+            } else {
+                oldest = n;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            size = 0;
+            newest = -1;
+            oldest = -1;
+            hand = 0;
+        }
+    }
+}
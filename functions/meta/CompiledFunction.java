@@ -0,0 +1,298 @@
+package functions.meta;
+
+import functions.Function;
+import functions.basic.*;
+
+import java.util.Arrays;
+
+//Функция, полученная компиляцией дерева из functions.basic и functions.meta в плоскую стековую программу.
+//Вместо цепочки виртуальных вызовов по узлам дерева значение вычисляется одним циклом по массиву инструкций.
+//Узлы неизвестных классов (в том числе табулированные функции и наследники стандартных классов) вызываются как есть.
+public class CompiledFunction implements Function {
+
+    // Коды инструкций. Все инструкции, кроме DUP, SWAP, ADD и MUL, заменяют значение на вершине стека
+    private static final byte SIN = 0;
+    private static final byte COS = 1;
+    private static final byte TAN = 2;
+    private static final byte EXP = 3;
+    private static final byte LOG = 4;        // ln(top) / constant, NaN при top <= 0
+    private static final byte ADD_CONST = 5;  // top + constant
+    private static final byte SUB_CONST = 6;  // top - constant
+    private static final byte MUL_CONST = 7;  // top * constant
+    private static final byte DIV_CONST = 8;  // top / constant
+    private static final byte POW_CONST = 9;  // top ^ constant
+    private static final byte DUP = 10;       // копирует вершину стека
+    private static final byte SWAP = 11;      // меняет местами два верхних значения
+    private static final byte ADD = 12;       // складывает два верхних значения
+    private static final byte MUL = 13;       // перемножает два верхних значения
+    private static final byte CALL = 14;      // вызывает функцию, которую нельзя скомпилировать
+    private static final byte CONST = 15;     // заменяет вершину стека константой
+    // Функции в режиме MathMode.FAST
+    private static final byte FAST_SIN = 16;
+    private static final byte FAST_COS = 17;
+    private static final byte FAST_TAN = 18;
+    private static final byte FAST_EXP = 19;
+    private static final byte FAST_LOG = 20;  // ln(top) * constant, NaN при top <= 0
+
+    // Размер порции при пакетном вычислении
+    private static final int CHUNK_SIZE = 1024;
+
+    private final Function source;
+    private final byte[] code;
+    private final double[] constants;
+    private final Function[] calls;
+    private final int maxStack;
+    // Стек для вычисления одного значения, свой у каждого потока: getFunctionValue не создаёт массив при каждом вызове
+    private final ThreadLocal<Scratch> scratch;
+
+    //Компилирует дерево функций
+    public CompiledFunction(Function source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Function is null");
+        }
+        this.source = source;
+
+        Compiler compiler = new Compiler();
+        compiler.emit(source);
+        this.code = Arrays.copyOf(compiler.code, compiler.length);
+        this.constants = Arrays.copyOf(compiler.constants, compiler.length);
+        this.calls = Arrays.copyOf(compiler.calls, compiler.length);
+        this.maxStack = compiler.maxDepth;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(maxStack));
+    }
+
+    // Стек потока и признак того, что он занят: если вызванная из программы функция снова вычисляет эту же функцию
+    // в том же потоке, вложенному вызову достаётся отдельный массив
+    private static final class Scratch {
+        final double[] stack;
+        boolean busy;
+
+        Scratch(int size) {
+            stack = new double[size];
+        }
+    }
+
+    //Исходное дерево функций
+    public Function getSource() {
+        return source;
+    }
+
+    //Количество инструкций программы
+    public int getInstructionCount() {
+        return code.length;
+    }
+
+    //Область определения совпадает с областью определения исходной функции
+    public double getLeftDomainBorder() {
+        return source.getLeftDomainBorder();
+    }
+
+    public double getRightDomainBorder() {
+        return source.getRightDomainBorder();
+    }
+
+    //Вычисляет значение функции, выполняя программу над стеком значений
+    public double getFunctionValue(double x) {
+        Scratch s = scratch.get();
+        if (s.busy) {
+            return evaluate(x, new double[maxStack]);
+        }
+        s.busy = true;
+        try {
+            return evaluate(x, s.stack);
+        } finally {
+            s.busy = false;
+        }
+    }
+
+    private double evaluate(double x, double[] stack) {
+        int top = 0;
+        stack[0] = x;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            switch (code[pc]) {
+                case SIN: stack[top] = Math.sin(stack[top]); break;
+                case COS: stack[top] = Math.cos(stack[top]); break;
+                case TAN: stack[top] = Math.tan(stack[top]); break;
+                case EXP: stack[top] = Math.exp(stack[top]); break;
+                case LOG: stack[top] = stack[top] <= 0 ? Double.NaN : Math.log(stack[top]) / constants[pc]; break;
+                case FAST_SIN: stack[top] = FastMath.sin(stack[top]); break;
+                case FAST_COS: stack[top] = FastMath.cos(stack[top]); break;
+                case FAST_TAN: stack[top] = FastMath.tan(stack[top]); break;
+                case FAST_EXP: stack[top] = FastMath.exp(stack[top]); break;
+                case FAST_LOG: stack[top] = stack[top] <= 0 ? Double.NaN : Math.log(stack[top]) * constants[pc]; break;
+                case ADD_CONST: stack[top] = stack[top] + constants[pc]; break;
+                case SUB_CONST: stack[top] = stack[top] - constants[pc]; break;
+                case MUL_CONST: stack[top] = stack[top] * constants[pc]; break;
+                case DIV_CONST: stack[top] = stack[top] / constants[pc]; break;
+                case POW_CONST: stack[top] = Math.pow(stack[top], constants[pc]); break;
+                case CONST: stack[top] = constants[pc]; break;
+                case DUP: stack[top + 1] = stack[top]; top++; break;
+                case SWAP: {
+                    double value = stack[top];
+                    stack[top] = stack[top - 1];
+                    stack[top - 1] = value;
+                    break;
+                }
+                case ADD: stack[top - 1] = stack[top - 1] + stack[top]; top--; break;
+                case MUL: stack[top - 1] = stack[top - 1] * stack[top]; top--; break;
+                default: stack[top] = calls[pc].getFunctionValue(stack[top]); break;
+            }
+        }
+        return stack[0];
+    }
+
+    //Пакетное вычисление: программа выполняется над порциями аргументов, каждая инструкция - отдельный плотный цикл по порции
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[][] stack = null;
+        for (int from = 0; from < xs.length; from += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, xs.length - from);
+            if (stack == null || stack[0].length != count) {
+                stack = new double[maxStack][count];
+            }
+            System.arraycopy(xs, from, stack[0], 0, count);
+            execute(stack, count);
+            System.arraycopy(stack[0], 0, out, from, count);
+        }
+    }
+
+    private void execute(double[][] stack, int count) {
+        int top = 0;
+        for (int pc = 0; pc < code.length; pc++) {
+            double[] values = stack[top];
+            double constant = constants[pc];
+            switch (code[pc]) {
+                case SIN: for (int i = 0; i < count; i++) values[i] = Math.sin(values[i]); break;
+                case COS: for (int i = 0; i < count; i++) values[i] = Math.cos(values[i]); break;
+                case TAN: for (int i = 0; i < count; i++) values[i] = Math.tan(values[i]); break;
+                case EXP: for (int i = 0; i < count; i++) values[i] = Math.exp(values[i]); break;
+                case LOG:
+                    for (int i = 0; i < count; i++) values[i] = values[i] <= 0 ? Double.NaN : Math.log(values[i]) / constant;
+                    break;
+                case FAST_SIN: for (int i = 0; i < count; i++) values[i] = FastMath.sin(values[i]); break;
+                case FAST_COS: for (int i = 0; i < count; i++) values[i] = FastMath.cos(values[i]); break;
+                case FAST_TAN: for (int i = 0; i < count; i++) values[i] = FastMath.tan(values[i]); break;
+                case FAST_EXP: for (int i = 0; i < count; i++) values[i] = FastMath.exp(values[i]); break;
+                case FAST_LOG:
+                    for (int i = 0; i < count; i++) values[i] = values[i] <= 0 ? Double.NaN : Math.log(values[i]) * constant;
+                    break;
+                case ADD_CONST: for (int i = 0; i < count; i++) values[i] = values[i] + constant; break;
+                case SUB_CONST: for (int i = 0; i < count; i++) values[i] = values[i] - constant; break;
+                case MUL_CONST: for (int i = 0; i < count; i++) values[i] = values[i] * constant; break;
+                case DIV_CONST: for (int i = 0; i < count; i++) values[i] = values[i] / constant; break;
+                case POW_CONST: for (int i = 0; i < count; i++) values[i] = Math.pow(values[i], constant); break;
+                case CONST: Arrays.fill(values, 0, count, constant); break;
+                case DUP: System.arraycopy(values, 0, stack[top + 1], 0, count); top++; break;
+                case SWAP: stack[top] = stack[top - 1]; stack[top - 1] = values; break;
+                case ADD: {
+                    double[] target = stack[top - 1];
+                    for (int i = 0; i < count; i++) target[i] = target[i] + values[i];
+                    top--;
+                    break;
+                }
+                case MUL: {
+                    double[] target = stack[top - 1];
+                    for (int i = 0; i < count; i++) target[i] = target[i] * values[i];
+                    top--;
+                    break;
+                }
+                default: calls[pc].getFunctionValues(values, values); break;
+            }
+        }
+    }
+
+    //Обход дерева функций с генерацией инструкций
+    private static final class Compiler {
+        byte[] code = new byte[16];
+        double[] constants = new double[16];
+        Function[] calls = new Function[16];
+        int length;
+        int depth = 1;
+        int maxDepth = 1;
+
+        void emit(Function f) {
+            Class<?> type = f.getClass();
+            // Для элементарных функций инструкция выбирается по способу вычисления, чтобы результат совпадал с исходной функцией
+            if (type == Sin.class) {
+                add(fast(((Sin) f).getMode()) ? FAST_SIN : SIN, 0, null);
+            } else if (type == Cos.class) {
+                add(fast(((Cos) f).getMode()) ? FAST_COS : COS, 0, null);
+            } else if (type == Tan.class) {
+                add(fast(((Tan) f).getMode()) ? FAST_TAN : TAN, 0, null);
+            } else if (type == Exp.class) {
+                add(fast(((Exp) f).getMode()) ? FAST_EXP : EXP, 0, null);
+            } else if (type == Constant.class) {
+                add(CONST, ((Constant) f).getValue(), null);
+            } else if (type == Log.class) {
+                Log log = (Log) f;
+                double lnBase = Math.log(log.getBase());
+                if (fast(log.getMode())) {
+                    add(FAST_LOG, 1 / lnBase, null);
+                } else {
+                    add(LOG, lnBase, null);
+                }
+            } else if (type == Shift.class) {
+                Shift shift = (Shift) f;
+                add(SUB_CONST, shift.getShiftX(), null);
+                emit(shift.getFunction());
+                add(ADD_CONST, shift.getShiftY(), null);
+            } else if (type == Scale.class) {
+                Scale scale = (Scale) f;
+                add(DIV_CONST, scale.getScaleX(), null);
+                emit(scale.getFunction());
+                add(MUL_CONST, scale.getScaleY(), null);
+            } else if (type == Power.class) {
+                Power power = (Power) f;
+                emit(power.getBase());
+                add(POW_CONST, power.getPower(), null);
+            } else if (type == Composition.class) {
+                Composition composition = (Composition) f;
+                emit(composition.getInnerFunction());
+                emit(composition.getOuterFunction());
+            } else if (type == Sum.class) {
+                Sum sum = (Sum) f;
+                emitBinary(sum.getFirstFunction(), sum.getSecondFunction(), ADD);
+            } else if (type == Mult.class) {
+                Mult mult = (Mult) f;
+                emitBinary(mult.getFirstFunction(), mult.getSecondFunction(), MUL);
+            } else {
+                add(CALL, 0, f);
+            }
+        }
+
+        private static boolean fast(MathMode mode) {
+            return mode == MathMode.FAST;
+        }
+
+        // f1(a) op f2(a): аргумент дублируется, после вычисления f1 возвращается на вершину для f2
+        private void emitBinary(Function f1, Function f2, byte operation) {
+            add(DUP, 0, null);
+            grow(1);
+            emit(f1);
+            add(SWAP, 0, null);
+            emit(f2);
+            add(operation, 0, null);
+            depth--;
+        }
+
+        private void grow(int delta) {
+            depth += delta;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        private void add(byte instruction, double constant, Function call) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+                constants = Arrays.copyOf(constants, length * 2);
+                calls = Arrays.copyOf(calls, length * 2);
+            }
+            code[length] = instruction;
+            constants[length] = constant;
+            calls[length] = call;
+            length++;
+        }
+    }
+}
@@ -12,6 +12,16 @@ public class Composition implements Function {
         this.f2 = f2;
     }
 
+    //Внешняя функция f1
+    public Function getOuterFunction() {
+        return f1;
+    }
+
+    //Внутренняя функция f2
+    public Function getInnerFunction() {
+        return f2;
+    }
+
     //Область определения считаем совпадающей с областью определения внутренней функции f2
     public double getLeftDomainBorder() {
         return f2.getLeftDomainBorder();
@@ -29,4 +39,14 @@ public class Composition implements Function {
         //Используем это значение как аргумент для внешней функции f1
         return f1.getFunctionValue(innerValue);
     }
+
+    //Пакетное вычисление: значения f2 по возможности записываются прямо в out и используются как аргументы f1 на месте
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[] innerValues = out.length == xs.length ? out : new double[xs.length];
+        f2.getFunctionValues(xs, innerValues);
+        f1.getFunctionValues(innerValues, out);
+    }
 }
\ No newline at end of file
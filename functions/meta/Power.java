@@ -11,6 +11,16 @@ public class Power implements Function {
         this.power = power;
     }
 
+    //Функция, возводимая в степень
+    public Function getBase() {
+        return base;
+    }
+
+    //Показатель степени
+    public double getPower() {
+        return power;
+    }
+
     //Область определения совпадает с областью определения базовой функции
     public double getLeftDomainBorder() {
         return base.getLeftDomainBorder();
@@ -24,4 +34,15 @@ public class Power implements Function {
     public double getFunctionValue(double x) {
         return Math.pow(base.getFunctionValue(x), power);
     }
+
+    //Пакетное вычисление: значения базовой функции записываются в out и возводятся в степень на месте
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        base.getFunctionValues(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.pow(out[i], power);
+        }
+    }
 }
\ No newline at end of file
@@ -21,6 +21,21 @@ public class Scale implements Function {
         this.scaleY = scaleY;
     }
 
+    //Исходная функция
+    public Function getFunction() {
+        return f;
+    }
+
+    //Коэффициент масштабирования вдоль оси абсцисс
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    //Коэффициент масштабирования вдоль оси ординат
+    public double getScaleY() {
+        return scaleY;
+    }
+
     //Область определения получается масштабированием: [left*scaleX, right*scaleX], при отрицательном scaleX границы меняются местами
     public double getLeftDomainBorder() {
         if (scaleX > 0) {
@@ -46,4 +61,19 @@ public class Scale implements Function {
          //Масштабируем значение исходной функции: f(argument) * scaleY
          return f.getFunctionValue(argument) * scaleY;
      }
+
+    //Пакетное вычисление: масштабированные аргументы по возможности записываются прямо в out, чтобы не выделять временный массив
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[] arguments = out.length == xs.length ? out : new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            arguments[i] = xs[i] / scaleX;
+        }
+        f.getFunctionValues(arguments, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] *= scaleY;
+        }
+    }
 }
\ No newline at end of file
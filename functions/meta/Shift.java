@@ -14,6 +14,21 @@ public class Shift implements Function {
         this.shiftY = shiftY;
     }
 
+    //Исходная функция
+    public Function getFunction() {
+        return f;
+    }
+
+    //Сдвиг вдоль оси абсцисс
+    public double getShiftX() {
+        return shiftX;
+    }
+
+    //Сдвиг вдоль оси ординат
+    public double getShiftY() {
+        return shiftY;
+    }
+
     //Область определения сдвигается вдоль оси абсцисс: [left + shiftX, right + shiftX]
     public double getLeftDomainBorder() {
         return f.getLeftDomainBorder() + shiftX;
@@ -31,4 +46,19 @@ public class Shift implements Function {
         //Сдвигаем значение исходной функции
         return f.getFunctionValue(argument) + shiftY;
     }
+
+    //Пакетное вычисление: сдвинутые аргументы по возможности записываются прямо в out, чтобы не выделять временный массив
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[] arguments = out.length == xs.length ? out : new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            arguments[i] = xs[i] - shiftX;
+        }
+        f.getFunctionValues(arguments, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] += shiftY;
+        }
+    }
 }
\ No newline at end of file
@@ -11,6 +11,16 @@ public class Sum implements Function {
         this.f2 = f2;
     }
 
+    //Первая исходная функция
+    public Function getFirstFunction() {
+        return f1;
+    }
+
+    //Вторая исходная функция
+    public Function getSecondFunction() {
+        return f2;
+    }
+
     //Возвращает левую границу области определения, которая является максимумом левых границ исходных функций
     public double getLeftDomainBorder() {
         return Math.max(f1.getLeftDomainBorder(), f2.getLeftDomainBorder());
@@ -25,4 +35,17 @@ public class Sum implements Function {
     public double getFunctionValue(double x) {
         return f1.getFunctionValue(x) + f2.getFunctionValue(x);
     }
+
+    //Пакетное вычисление: сначала значения f2 во временный массив (пока xs не затёрт), затем f1 прямо в out
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than input array");
+        }
+        double[] values2 = new double[xs.length];
+        f2.getFunctionValues(xs, values2);
+        f1.getFunctionValues(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] += values2[i];
+        }
+    }
 }
\ No newline at end of file